@@ -511,66 +511,78 @@ public class Catalog implements Serializable {
         for (SQLParser.ParsedSQL.FilterExpression sqlFilter : sqlFilters) {
             String sqlFilterColumnName = sqlFilter.getColumn();
             CatalogEntry catalogEntry = findByName(sqlFilterColumnName);
+            afmFilters.add(this.resolveAfmFilter(sqlFilter, catalogEntry));
+        }
+        return afmFilters;
+    }
 
-            if (catalogEntry.getType().equalsIgnoreCase("metric")) {
-                if (!ArrayUtils.contains(METRIC_FILTER_OPERATORS, sqlFilter.getOperator()))
-                    throw new SQLException("Only =,<>,>=,<=,>,<,BETWEEN, and NOT BETWEEN " +
-                            "operators are supported for metrics.");
-                if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_BETWEEN ||
-                        sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_BETWEEN) {
-                    BigDecimal valueStart = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(0));
-                    BigDecimal valueEnd = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(1));
-                    RangeCondition c = new RangeCondition(
-                            sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_BETWEEN
-                                    ? RangeConditionOperator.BETWEEN
-                                    : RangeConditionOperator.NOT_BETWEEN
-                            , valueStart, valueEnd);
-                    List<Object> values = Arrays.asList(valueStart, valueEnd);
-                    CompatibilityFilter f = new MeasureValueFilter(catalogEntry.getGdObject(), c);
-                    afmFilters.add(new AfmFilter(catalogEntry, sqlFilter.getOperator(), values, f));
-                } else {
-                    BigDecimal value = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(0));
-                    MeasureValueFilterCondition c = new ComparisonCondition(
-                            getAfmComparisonOperatorFromParserOperator(sqlFilter.getOperator()),
-                            value
-                    );
-                    CompatibilityFilter f = new MeasureValueFilter(catalogEntry.getGdObject(), c);
-                    List<Object> values = Collections.singletonList(value);
-                    afmFilters.add(new AfmFilter(catalogEntry, sqlFilter.getOperator(), values, f));
-                }
+    /**
+     * Resolve one parsed SQL filter on the already found catalog object to the AFM filter
+     *
+     * @param sqlFilter    parsed SQL filter with the substituted prepared parameters
+     * @param catalogEntry catalog object of the filter column
+     * @return AFM filter
+     * @throws SQLException unsupported operator or invalid value
+     */
+    public AfmFilter resolveAfmFilter(SQLParser.ParsedSQL.FilterExpression sqlFilter, CatalogEntry catalogEntry)
+            throws SQLException {
+        if (catalogEntry.getType().equalsIgnoreCase("metric")) {
+            if (!ArrayUtils.contains(METRIC_FILTER_OPERATORS, sqlFilter.getOperator()))
+                throw new SQLException("Only =,<>,>=,<=,>,<,BETWEEN, and NOT BETWEEN " +
+                        "operators are supported for metrics.");
+            if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_BETWEEN ||
+                    sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_BETWEEN) {
+                BigDecimal valueStart = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(0));
+                BigDecimal valueEnd = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(1));
+                RangeCondition c = new RangeCondition(
+                        sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_BETWEEN
+                                ? RangeConditionOperator.BETWEEN
+                                : RangeConditionOperator.NOT_BETWEEN
+                        , valueStart, valueEnd);
+                List<Object> values = Arrays.asList(valueStart, valueEnd);
+                CompatibilityFilter f = new MeasureValueFilter(catalogEntry.getGdObject(), c);
+                return new AfmFilter(catalogEntry, sqlFilter.getOperator(), values, f);
+            } else {
+                BigDecimal value = DataTypeParser.parseBigDecimal(sqlFilter.getValues().get(0));
+                MeasureValueFilterCondition c = new ComparisonCondition(
+                        getAfmComparisonOperatorFromParserOperator(sqlFilter.getOperator()),
+                        value
+                );
+                CompatibilityFilter f = new MeasureValueFilter(catalogEntry.getGdObject(), c);
+                List<Object> values = Collections.singletonList(value);
+                return new AfmFilter(catalogEntry, sqlFilter.getOperator(), values, f);
+            }
 
+        } else {
+            if (!ArrayUtils.contains(ATTRIBUTE_FILTER_OPERATORS, sqlFilter.getOperator()))
+                throw new SQLException("Only =,<>,IN, and NOT IN " +
+                        "operators are supported for attributes.");
+            CompatibilityFilter f;
+            List<String> quotedValues = sqlFilter.getValues();
+            List<String> unQuotedValues = quotedValues.stream().filter(e -> !(e.startsWith("'") && e.endsWith("'")))
+                    .collect(Collectors.toList());
+
+            if (unQuotedValues.size() > 0) {
+                throw new SQLException(String.format("WHERE condition attribute values without quotes '%s'",
+                        unQuotedValues));
+            }
+            List<String> values = sqlFilter.getValues().stream().map(e -> e.replace("'", ""))
+                    .collect(Collectors.toList());
+            ValueAttributeFilterElements e = new ValueAttributeFilterElements(values);
+            if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_EQUAL) {
+                f = new PositiveAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
+            } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_EQUAL) {
+                f = new NegativeAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
+            } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_IN) {
+                f = new PositiveAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
+            } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_IN) {
+                f = new NegativeAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
             } else {
-                if (!ArrayUtils.contains(ATTRIBUTE_FILTER_OPERATORS, sqlFilter.getOperator()))
-                    throw new SQLException("Only =,<>,IN, and NOT IN " +
-                            "operators are supported for attributes.");
-                CompatibilityFilter f;
-                List<String> quotedValues = sqlFilter.getValues();
-                List<String> unQuotedValues = quotedValues.stream().filter(e -> !(e.startsWith("'") && e.endsWith("'")))
-                        .collect(Collectors.toList());
-
-                if (unQuotedValues.size() > 0) {
-                    throw new SQLException(String.format("WHERE condition attribute values without quotes '%s'",
-                            unQuotedValues));
-                }
-                List<String> values = sqlFilter.getValues().stream().map(e -> e.replace("'", ""))
-                        .collect(Collectors.toList());
-                ValueAttributeFilterElements e = new ValueAttributeFilterElements(values);
-                if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_EQUAL) {
-                    f = new PositiveAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
-                } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_EQUAL) {
-                    f = new NegativeAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
-                } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_IN) {
-                    f = new PositiveAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
-                } else if (sqlFilter.getOperator() == SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_IN) {
-                    f = new NegativeAttributeFilter(catalogEntry.getDefaultDisplayForm(), e);
-                } else {
-                    throw new SQLException(String.format(
-                            "Unsupported attribute filter operator '%d'", sqlFilter.getOperator()));
-                }
-                afmFilters.add(new AfmFilter(catalogEntry, sqlFilter.getOperator(), Collections.singletonList(values), f));
+                throw new SQLException(String.format(
+                        "Unsupported attribute filter operator '%d'", sqlFilter.getOperator()));
             }
+            return new AfmFilter(catalogEntry, sqlFilter.getOperator(), Collections.singletonList(values), f);
         }
-        return afmFilters;
     }
 
     /**
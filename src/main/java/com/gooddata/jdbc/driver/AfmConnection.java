@@ -1,6 +1,7 @@
 package com.gooddata.jdbc.driver;
 
 import com.gooddata.jdbc.metadata.AfmDatabaseMetaData;
+import com.gooddata.jdbc.util.ConnectionProperties;
 import com.gooddata.sdk.service.GoodData;
 import com.gooddata.sdk.service.GoodDataEndpoint;
 import com.gooddata.sdk.service.GoodDataSettings;
@@ -26,6 +27,8 @@ public class AfmConnection implements java.sql.Connection {
 
     private final GoodData gd;
     private final AfmDatabaseMetaData afmDatabaseMetaData;
+    private final ConnectionProperties connectionProperties;
+    private final RestTemplate gdRestTemplate;
 
     private boolean isClosed = false;
     private boolean autoCommit = false;
@@ -52,18 +55,37 @@ public class AfmConnection implements java.sql.Connection {
             throw new SQLException(String.format("Wrong JDBC URL format: '%s'", url));
         String host = m.group(1);
         String pid = m.group(2);
+        this.connectionProperties = new ConnectionProperties(properties, host);
         this.gd = new GoodData(host, login, password);
         LoginPasswordGoodDataRestProvider lp = new LoginPasswordGoodDataRestProvider(
                 new GoodDataEndpoint(host, GoodDataEndpoint.PORT, GoodDataEndpoint.PROTOCOL),
                 new GoodDataSettings(),
                 login,
                 password);
-        RestTemplate gdRestTemplate = lp.getRestTemplate();
+        this.gdRestTemplate = lp.getRestTemplate();
         this.afmDatabaseMetaData = new AfmDatabaseMetaData(
-                this, this.gd, pid, login, gdRestTemplate);
+                this, this.gd, pid, login, this.gdRestTemplate);
 
     }
 
+    /**
+     * Driver tuning properties passed to the connection
+     *
+     * @return connection properties
+     */
+    public ConnectionProperties getConnectionProperties() {
+        return this.connectionProperties;
+    }
+
+    /**
+     * Authenticated GD REST template
+     *
+     * @return REST template
+     */
+    public RestTemplate getRestTemplate() {
+        return this.gdRestTemplate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -239,7 +261,7 @@ public class AfmConnection implements java.sql.Connection {
     public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency) {
         LOGGER.info(String.format("createStatement resultSetType='%d', resultSetConcurrency='%d'",
                 resultSetType, resultSetConcurrency));
-        return this.createStatement();
+        return new AfmStatement(this, this.gd, this.afmDatabaseMetaData, "", resultSetType);
     }
 
     /**
@@ -249,7 +271,7 @@ public class AfmConnection implements java.sql.Connection {
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) {
         LOGGER.info(String.format("prepareStatement sql='%s', resultSetType='%d', resultSetConcurrency='%d'",
                 sql, resultSetType, resultSetConcurrency));
-        return this.prepareStatement(sql);
+        return new AfmStatement(this, this.gd, this.afmDatabaseMetaData, sql, resultSetType);
     }
 
     /**
@@ -341,7 +363,7 @@ public class AfmConnection implements java.sql.Connection {
     public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
         LOGGER.info(String.format("createStatement resultsetType='%d', resultSetConcurrency='%d', " +
                 "resultSetHoldability='%s'", resultSetType, resultSetConcurrency, resultSetHoldability));
-        return this.createStatement();
+        return new AfmStatement(this, this.gd, this.afmDatabaseMetaData, "", resultSetType);
     }
 
     /**
@@ -352,7 +374,7 @@ public class AfmConnection implements java.sql.Connection {
                                               int resultSetHoldability) {
         LOGGER.info(String.format("prepareStatement sql='%s', resultsetType='%d', resultSetConcurrency='%d', " +
                 "resultSetHoldability='%s'", sql, resultSetType, resultSetConcurrency, resultSetHoldability));
-        return this.prepareStatement(sql);
+        return new AfmStatement(this, this.gd, this.afmDatabaseMetaData, sql, resultSetType);
     }
 
     /**
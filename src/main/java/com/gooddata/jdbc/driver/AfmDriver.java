@@ -1,6 +1,7 @@
 package com.gooddata.jdbc.driver;
 
 import com.gooddata.jdbc.catalog.Catalog;
+import com.gooddata.jdbc.util.ConnectionProperties;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -120,7 +121,7 @@ public class AfmDriver implements java.sql.Driver {
     @Override
     public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
         LOGGER.info(String.format("getPropertyInfo: url='%s' info='%s'", url, info));
-        return new DriverPropertyInfo[]{};
+        return new ConnectionProperties(info).getPropertyInfo();
     }
 
     /**
@@ -5,19 +5,36 @@ import com.gooddata.jdbc.catalog.Catalog;
 import com.gooddata.jdbc.catalog.CatalogEntry;
 import com.gooddata.jdbc.metadata.AfmDatabaseMetaData;
 import com.gooddata.jdbc.parser.MaqlParser;
+import com.gooddata.jdbc.parser.ParsedSQLCache;
 import com.gooddata.jdbc.parser.SQLParser;
 import com.gooddata.jdbc.resultset.AbstractResultSet;
 import com.gooddata.jdbc.resultset.AfmResultSet;
+import com.gooddata.jdbc.resultset.CachedResultReader;
 import com.gooddata.jdbc.resultset.MetadataResultSet;
+import com.gooddata.jdbc.resultset.PollingPolicy;
+import com.gooddata.jdbc.resultset.QueryControl;
+import com.gooddata.jdbc.resultset.ResultCache;
+import com.gooddata.jdbc.resultset.ResultDiskCache;
+import com.gooddata.jdbc.resultset.ResultExporter;
+import com.gooddata.jdbc.resultset.ResultPageReader;
+import com.gooddata.jdbc.resultset.SdkResultPageReader;
+import com.gooddata.jdbc.resultset.StreamingResultPageReader;
+import com.gooddata.jdbc.util.ConnectionProperties;
+import com.gooddata.jdbc.util.DriverExecutors;
+import com.gooddata.jdbc.util.Flow;
 import com.gooddata.jdbc.util.TextUtil;
+import com.gooddata.sdk.model.executeafm.Execution;
 import com.gooddata.sdk.model.executeafm.ObjQualifier;
 import com.gooddata.sdk.model.executeafm.afm.Afm;
 import com.gooddata.sdk.model.executeafm.afm.AttributeItem;
 import com.gooddata.sdk.model.executeafm.afm.MeasureItem;
 import com.gooddata.sdk.model.executeafm.afm.SimpleMeasureDefinition;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
 import com.gooddata.sdk.model.executeafm.resultspec.SortItem;
 import com.gooddata.sdk.model.md.Metric;
 import com.gooddata.sdk.model.project.Project;
+import com.gooddata.sdk.service.FutureResult;
 import com.gooddata.sdk.service.GoodData;
 import com.gooddata.sdk.service.executeafm.ExecuteAfmService;
 import com.gooddata.sdk.service.md.MetadataService;
@@ -27,15 +44,19 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.Date;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * JDBC statement
  */
-public class AfmStatement implements java.sql.Statement, PreparedStatement {
+public class AfmStatement implements java.sql.Statement, PreparedStatement, AsyncStatement,
+        ExportStatement {
 
     private final static Logger LOGGER = Logger.getLogger(AfmStatement.class.getName());
 
@@ -48,14 +69,19 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     private final Map<Integer, Object> preparedStatementParams = new HashMap<>();
 
     private boolean isClosed = false;
-    private ResultSet resultSet;
+    private volatile ResultSet resultSet;
     private int maxRows = 0;
 
     private String sql;
+    // SELECT of the prepared statement resolved against the catalog, compiled by the first execution
+    private PreparedPlan preparedPlan;
     private int queryTimeout;
+    // Timeout and cancellation of the running execution
+    private volatile QueryControl queryControl;
 
     private int fetchSize = 0;
-
+    // TYPE_FORWARD_ONLY or TYPE_SCROLL_INSENSITIVE
+    private final int resultSetType;
 
     /**
      * Constructor
@@ -65,7 +91,22 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
      * @param metadata database metadata
      */
     public AfmStatement(AfmConnection con, GoodData gd, AfmDatabaseMetaData metadata, String sql) {
+        this(con, gd, metadata, sql, AfmResultSet.TYPE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param con           java.sql.Connection
+     * @param gd            GoodData connection class
+     * @param metadata      database metadata
+     * @param resultSetType requested ResultSet type, TYPE_SCROLL_SENSITIVE is downgraded to TYPE_SCROLL_INSENSITIVE
+     */
+    public AfmStatement(AfmConnection con, GoodData gd, AfmDatabaseMetaData metadata, String sql,
+                        int resultSetType) {
         LOGGER.info("AfmStatement");
+        this.resultSetType = resultSetType == ResultSet.TYPE_FORWARD_ONLY
+                ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
         this.afmConnection = con;
         this.metadata = metadata;
         this.sql = sql;
@@ -100,23 +141,421 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     }
 
     /**
-     * Execute either regular or prepared statement
+     * SELECT resolved against the catalog - AFM, its columns, ORDER BY and the LIMIT window
+     */
+    private static class QueryPlan {
+
+        private final Afm afm;
+        private final List<CatalogEntry> columns;
+        private final List<SortItem> orderBys;
+        private final int limit;
+        private final int offset;
+        // the query can't return any rows, it isn't executed
+        private final boolean isEmpty;
+
+        QueryPlan(Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys, int limit, int offset,
+                  boolean isEmpty) {
+            this.afm = afm;
+            this.columns = columns;
+            this.orderBys = orderBys;
+            this.limit = limit;
+            this.offset = offset;
+            this.isEmpty = isEmpty;
+        }
+
+        Execution getExecution() {
+            return AfmResultSet.createExecution(this.afm, this.columns, this.orderBys);
+        }
+    }
+
+    /**
+     * Filter of the prepared statement - the resolved AFM filter or the template of a filter with parameters
+     */
+    private static class FilterTemplate {
+
+        private final SQLParser.ParsedSQL.FilterExpression expression;
+        private final CatalogEntry column;
+        // resolved filter without parameters, null when the filter has parameters
+        private final AfmFilter filter;
+        // 1 based index of the first parameter of the filter
+        private final int firstParameter;
+
+        FilterTemplate(SQLParser.ParsedSQL.FilterExpression expression, CatalogEntry column, AfmFilter filter,
+                       int firstParameter) {
+            this.expression = expression;
+            this.column = column;
+            this.filter = filter;
+            this.firstParameter = firstParameter;
+        }
+    }
+
+    /**
+     * SELECT of the prepared statement parsed and resolved once. The execution only binds the parameters
+     * to the filters that have them, the columns, ORDER BY and the other filters are reused.
+     */
+    private static class PreparedPlan {
+
+        private final String sql;
+        private final Catalog catalog;
+        private final List<CatalogEntry> columns;
+        private final List<SortItem> orderBys;
+        private final List<FilterTemplate> filters;
+        private final int limit;
+        private final int offset;
+        private final boolean isEmpty;
+
+        PreparedPlan(String sql, Catalog catalog, List<CatalogEntry> columns, List<SortItem> orderBys,
+                     List<FilterTemplate> filters, int limit, int offset, boolean isEmpty) {
+            this.sql = sql;
+            this.catalog = catalog;
+            this.columns = columns;
+            this.orderBys = orderBys;
+            this.filters = filters;
+            this.limit = limit;
+            this.offset = offset;
+            this.isEmpty = isEmpty;
+        }
+    }
+
+    /**
+     * Parses the SELECT of the prepared statement and resolves it against the catalog
+     *
+     * @param sql SQL query with the '?' parameters
+     * @return compiled plan
+     * @throws JSQLParserException                    wrong syntax
+     * @throws Catalog.DuplicateCatalogEntryException in case of duplicate catalog item
+     * @throws Catalog.CatalogEntryNotFoundException  in case of non-existent catalog item
+     * @throws TextUtil.InvalidFormatException        in case of invalid datetype format
+     * @throws SQLException                           other problems
+     */
+    private PreparedPlan compile(String sql) throws JSQLParserException, Catalog.DuplicateCatalogEntryException,
+            Catalog.CatalogEntryNotFoundException, TextUtil.InvalidFormatException, SQLException {
+        LOGGER.info(String.format("compile sql='%s'", sql));
+        Catalog catalog = this.metadata.getCatalog();
+        SQLParser.ParsedSQL parsedSql = this.parseQuery(sql);
+        List<CatalogEntry> columns = catalog.resolveAfmColumns(parsedSql);
+        List<SortItem> orderBys = catalog.resolveOrderBys(parsedSql, columns);
+        List<FilterTemplate> filters = new ArrayList<>();
+        int parameter = 1;
+        // the filters of the query without any rows aren't resolved, nothing is executed
+        List<SQLParser.ParsedSQL.FilterExpression> expressions = parsedSql.isEmptyResult()
+                ? Collections.emptyList() : parsedSql.getFilters();
+        for (SQLParser.ParsedSQL.FilterExpression expression : expressions) {
+            CatalogEntry column = catalog.findByName(expression.getColumn());
+            int parameters = Collections.frequency(expression.getValues(), "?");
+            filters.add(new FilterTemplate(expression, column,
+                    parameters == 0 ? catalog.resolveAfmFilter(expression, column) : null, parameter));
+            parameter += parameters;
+        }
+        return new PreparedPlan(sql, catalog, columns, orderBys, filters, parsedSql.getLimit(),
+                parsedSql.getOffset(), parsedSql.isEmptyResult());
+    }
+
+    /**
+     * Binds the parameters to the compiled plan
+     *
+     * @param prepared compiled plan
+     * @return query plan of the execution
+     * @throws SQLException when a parameter is missing or its value doesn't fit the filter
+     */
+    private QueryPlan bind(PreparedPlan prepared) throws SQLException {
+        List<AfmFilter> filters = new ArrayList<>(prepared.filters.size());
+        for (FilterTemplate template : prepared.filters) {
+            if (template.filter != null) {
+                filters.add(template.filter);
+            } else {
+                SQLParser.ParsedSQL.FilterExpression expression = new SQLParser.ParsedSQL.FilterExpression(
+                        template.expression.getOperator(), template.expression.getColumn(),
+                        template.expression.getValues());
+                expression.substitutePreparedParameterValues(this.preparedStatementParams, template.firstParameter);
+                filters.add(prepared.catalog.resolveAfmFilter(expression, template.column));
+            }
+        }
+        return new QueryPlan(getAfm(prepared.columns, filters), prepared.columns, prepared.orderBys,
+                prepared.limit, prepared.offset, prepared.isEmpty);
+    }
+
+    /**
+     * Executes the prepared SELECT, compiles it on the first execution or when the SQL or the catalog changes
      *
-     * @param parsedSql parsed SQL
      * @return ResultSet
+     * @throws SQLException when the statement can't be compiled or executed
+     */
+    private ResultSet executePrepared() throws SQLException {
+        LOGGER.info(String.format("executePrepared sql='%s'", this.sql));
+        try {
+            PreparedPlan prepared = this.preparedPlan;
+            if (prepared == null || !prepared.sql.equals(this.sql) || prepared.catalog != this.metadata.getCatalog()) {
+                prepared = this.compile(this.sql);
+                this.preparedPlan = prepared;
+            }
+            QueryControl control = this.newQueryControl();
+            this.resultSet = this.createResultSet(this.bind(prepared), control, null, null, null);
+            return this.resultSet;
+        } catch (Catalog.CatalogEntryNotFoundException | Catalog.DuplicateCatalogEntryException
+                | JSQLParserException | TextUtil.InvalidFormatException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Is the statement a MAQL statement rather than a SELECT?
+     *
+     * @param sql SQL statement
+     * @return true for CREATE, ALTER, DROP and DESCRIBE
+     */
+    private static boolean isMaql(String sql) {
+        String statement = sql.trim().toLowerCase();
+        return statement.startsWith("create") || statement.startsWith("alter")
+                || statement.startsWith("drop") || statement.startsWith("describe");
+    }
+
+    /**
+     * Resolves the parsed SQL against the catalog
+     *
+     * @param parsedSql parsed SQL
+     * @return query plan
      * @throws Catalog.DuplicateCatalogEntryException in case of duplicate catalog item
      * @throws Catalog.CatalogEntryNotFoundException  in case of non-existent catalog item
      * @throws TextUtil.InvalidFormatException        in case of invalid datetype format
      * @throws SQLException                           other problems
      */
-    private ResultSet execute(SQLParser.ParsedSQL parsedSql) throws Catalog.DuplicateCatalogEntryException,
+    private QueryPlan plan(SQLParser.ParsedSQL parsedSql) throws Catalog.DuplicateCatalogEntryException,
             Catalog.CatalogEntryNotFoundException, TextUtil.InvalidFormatException, SQLException {
         List<CatalogEntry> columns = this.metadata.getCatalog().resolveAfmColumns(parsedSql);
-        List<AfmFilter> filters = this.metadata.getCatalog().resolveAfmFilters(parsedSql);
+        // the filters of the query without any rows aren't resolved, nothing is executed
+        List<AfmFilter> filters = parsedSql.isEmptyResult()
+                ? Collections.emptyList() : this.metadata.getCatalog().resolveAfmFilters(parsedSql);
         List<SortItem> orderBys = this.metadata.getCatalog().resolveOrderBys(parsedSql, columns);
         Afm afm = getAfm(columns, filters);
-        return new AfmResultSet(this, this.workspace, this.gdAfm, afm, columns, orderBys,
-                parsedSql.getLimit(), parsedSql.getOffset());
+        return new QueryPlan(afm, columns, orderBys, parsedSql.getLimit(), parsedSql.getOffset(),
+                parsedSql.isEmptyResult());
+    }
+
+    /**
+     * Execute either regular or prepared statement
+     *
+     * @param parsedSql parsed SQL
+     * @return ResultSet
+     * @throws Catalog.DuplicateCatalogEntryException in case of duplicate catalog item
+     * @throws Catalog.CatalogEntryNotFoundException  in case of non-existent catalog item
+     * @throws TextUtil.InvalidFormatException        in case of invalid datetype format
+     * @throws SQLException                           other problems
+     */
+    private ResultSet execute(SQLParser.ParsedSQL parsedSql) throws Catalog.DuplicateCatalogEntryException,
+            Catalog.CatalogEntryNotFoundException, TextUtil.InvalidFormatException, SQLException {
+        QueryControl control = this.newQueryControl();
+        return this.createResultSet(this.plan(parsedSql), control, null, null, null);
+    }
+
+    /**
+     * Parses the SELECT statement, repeated statements are served by the parsed statement cache
+     *
+     * @param sql SQL query
+     * @return parsed SQL owned by the caller
+     * @throws JSQLParserException wrong syntax
+     */
+    private SQLParser.ParsedSQL parseQuery(String sql) throws JSQLParserException {
+        int cacheSize = this.afmConnection.getConnectionProperties().getParsedSqlCacheSize();
+        if (cacheSize <= 0)
+            return SQLParser.parseQuery(sql);
+        ParsedSQLCache.shared().ensureCapacity(cacheSize);
+        return ParsedSQLCache.shared().parse(sql);
+    }
+
+    /**
+     * Creates the timeout, cancellation and polling control of the next execution
+     *
+     * @return query control
+     */
+    private QueryControl newQueryControl() {
+        QueryControl control = new QueryControl(this.queryTimeout * 1000L,
+                PollingPolicy.of(this.afmConnection.getConnectionProperties()));
+        this.queryControl = control;
+        return control;
+    }
+
+    /**
+     * Control of the last execution with its poll count and the time spent waiting between the polls
+     *
+     * @return query control, null before the first execution
+     */
+    public QueryControl getQueryControl() {
+        return this.queryControl;
+    }
+
+    /**
+     * Creates the ResultSet of the query plan, fetches its first page
+     *
+     * @param plan         query plan
+     * @param control      query timeout and cancellation
+     * @param cachedResult result found in the result caches, null looks the result up unless it's executed
+     * @param response     response of the already executed AFM, null executes the AFM
+     * @param firstResult  ready result of the first page, null reads the first page
+     * @return ResultSet
+     * @throws SQLException when the first page can't be fetched
+     */
+    private AfmResultSet createResultSet(QueryPlan plan, QueryControl control, CachedResultReader cachedResult,
+                                         ExecutionResponse response, ExecutionResult firstResult)
+            throws SQLException {
+        ConnectionProperties properties = this.afmConnection.getConnectionProperties();
+        if (plan.isEmpty) {
+            LOGGER.info("The query can't return any rows, it isn't executed");
+            return AfmResultSet.empty(this, this.workspace, this.gdAfm, plan.afm, plan.columns, plan.orderBys,
+                    plan.offset, properties);
+        }
+        ResultPageReader pageReader = properties.isStreamingPageReader()
+                ? new StreamingResultPageReader(this.afmConnection.getRestTemplate(), control)
+                : new SdkResultPageReader(this.gdAfm, control);
+        return new AfmResultSet(this, this.workspace, this.gdAfm, pageReader, plan.afm, plan.columns,
+                plan.orderBys, plan.limit, plan.offset, properties, cachedResult, response, firstResult);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        LOGGER.info(String.format("executeQueryAsync sql='%s'", sql));
+        CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        QueryControl control = this.newQueryControl();
+        future.whenComplete((rs, e) -> {
+            if (future.isCancelled())
+                control.cancel();
+        });
+        // the statement's state is read on the caller's thread, the background task works with its own copy
+        boolean isMaql = isMaql(sql);
+        if (!isMaql)
+            this.sql = sql;
+        Map<Integer, Object> params = new HashMap<>(this.preparedStatementParams);
+        DriverExecutors.background().execute(() -> {
+            try {
+                if (isMaql) {
+                    future.complete(this.executeQuery(sql));
+                    return;
+                }
+                QueryPlan plan = this.plan(SQLParser.substitutePreparedParams(this.parseQuery(sql), params));
+                ConnectionProperties properties = this.afmConnection.getConnectionProperties();
+                CachedResultReader cachedResult = plan.isEmpty ? null : AfmResultSet.findCachedResult(this,
+                        this.workspace, plan.afm, plan.columns, plan.orderBys, plan.limit, plan.offset, properties);
+                if (plan.isEmpty || cachedResult != null) {
+                    // the ResultSet serves the empty or the cached result without the execution
+                    this.completeAsync(future, plan, control, cachedResult, null, null);
+                    return;
+                }
+                ExecutionResponse response = this.gdAfm.executeAfm(this.workspace, plan.getExecution());
+                // the whole result is computed at once, the first page the ResultSet reads tells when it is ready
+                FutureResult<ExecutionResult> firstPage = this.gdAfm.getResult(response, AfmResultSet.getFirstPage(
+                        this, plan.columns, plan.limit, plan.offset, properties));
+                this.schedulePoll(future, plan, control, response, firstPage, control.getDeadline(), 0);
+            } catch (Catalog.CatalogEntryNotFoundException | Catalog.DuplicateCatalogEntryException
+                    | JSQLParserException | TextUtil.InvalidFormatException e) {
+                future.completeExceptionally(new SQLException(e));
+            } catch (SQLException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flow.Publisher<Object[]> getRowPublisher() throws SQLException {
+        LOGGER.info("getRowPublisher");
+        ResultSet rs = this.resultSet;
+        if (!(rs instanceof AfmResultSet))
+            throw new SQLException("The statement has no executed query.");
+        return ((AfmResultSet) rs).getRowPublisher();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultExporter.Stats exportTo(Path file, ResultExporter.Format format) throws SQLException {
+        LOGGER.info(String.format("exportTo file='%s', format='%s'", file, format));
+        ResultSet rs = this.resultSet;
+        if (!(rs instanceof AfmResultSet))
+            throw new SQLException("The statement has no executed query.");
+        return ((AfmResultSet) rs).exportTo(file, format);
+    }
+
+    /**
+     * Schedules the poll of the execution result after the wait of the polling policy.
+     * No thread is blocked between the polls, the scheduler only times the poll and dispatches
+     * its blocking HTTP request to the background pool.
+     *
+     * @param future    future of the ResultSet
+     * @param plan      query plan
+     * @param control   query timeout, cancellation and polling
+     * @param response  AFM execution response
+     * @param firstPage future result of the first page
+     * @param deadline  deadline in milliseconds
+     * @param attempt   zero based number of the poll
+     */
+    private void schedulePoll(CompletableFuture<ResultSet> future, QueryPlan plan, QueryControl control,
+                              ExecutionResponse response, FutureResult<ExecutionResult> firstPage, long deadline,
+                              int attempt) {
+        long delay = Math.max(0, Math.min(control.getPollDelay(attempt), deadline - System.currentTimeMillis()));
+        control.recordPollWait(delay);
+        DriverExecutors.scheduler().schedule(() -> DriverExecutors.background().execute(
+                () -> this.pollAsync(future, plan, control, response, firstPage, deadline, attempt)),
+                delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls the first page of the execution result once, schedules the next poll if it isn't ready
+     *
+     * @param future    future of the ResultSet
+     * @param plan      query plan
+     * @param control   query timeout, cancellation and polling
+     * @param response  AFM execution response
+     * @param firstPage future result of the first page
+     * @param deadline  deadline in milliseconds
+     * @param attempt   zero based number of the poll
+     */
+    private void pollAsync(CompletableFuture<ResultSet> future, QueryPlan plan, QueryControl control,
+                           ExecutionResponse response, FutureResult<ExecutionResult> firstPage, long deadline,
+                           int attempt) {
+        if (future.isDone())
+            return;
+        try {
+            control.check(deadline);
+            if (control.recordPoll(firstPage.isDone())) {
+                // the ResultSet starts with the polled page instead of requesting it again
+                this.completeAsync(future, plan, control, null, response, firstPage.get());
+            } else {
+                this.schedulePoll(future, plan, control, response, firstPage, deadline, attempt + 1);
+            }
+        } catch (SQLException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Completes the future with the ResultSet of the ready execution
+     *
+     * @param future       future of the ResultSet
+     * @param plan         query plan
+     * @param control      query timeout and cancellation
+     * @param cachedResult result found in the result caches, null when it isn't cached
+     * @param response     AFM execution response
+     * @param firstResult  ready result of the first page
+     */
+    private void completeAsync(CompletableFuture<ResultSet> future, QueryPlan plan, QueryControl control,
+                               CachedResultReader cachedResult, ExecutionResponse response,
+                               ExecutionResult firstResult) {
+        try {
+            AfmResultSet rs = this.createResultSet(plan, control, cachedResult, response, firstResult);
+            this.resultSet = rs;
+            // the future may have been cancelled meanwhile
+            if (!future.complete(rs))
+                rs.close();
+        } catch (SQLException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
     }
 
     /**
@@ -139,6 +578,8 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
      */
     @Override
     public ResultSet executeQuery() throws SQLException {
+        if (!isMaql(this.sql))
+            return this.executePrepared();
         boolean b = this.execute(this.sql);
         if(b) {
             return this.resultSet;
@@ -150,6 +591,10 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
 
     @Override
     public boolean execute() throws SQLException {
+        if (!isMaql(this.sql)) {
+            this.executePrepared();
+            return true;
+        }
         return this.execute(this.sql);
     }
 
@@ -165,17 +610,20 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
                 MaqlParser.ParsedCreateMetricStatement parsedCreate
                         = parser.parseCreateOrAlterMetric(sql);
                 this.executeCreateMetric(parsedCreate);
+                this.invalidateResultCaches();
                 return false;
             } else if (sql.trim().toLowerCase().startsWith("alter")) {
                 MaqlParser parser = new MaqlParser();
                 MaqlParser.ParsedCreateMetricStatement parsedCreate
                         = parser.parseCreateOrAlterMetric(sql);
                 this.executeAlterMetric(parsedCreate);
+                this.invalidateResultCaches();
                 return false;
             } else if (sql.trim().toLowerCase().startsWith("drop")) {
                 MaqlParser parser = new MaqlParser();
                 MaqlParser.Describe parsedDropMetric = parser.parseDropOrDescribeMetric(sql);
                 this.executeDropMetric(parsedDropMetric.getName());
+                this.invalidateResultCaches();
                 return false;
             } else if (sql.trim().toLowerCase().startsWith("describe")) {
                 MaqlParser parser = new MaqlParser();
@@ -188,7 +636,7 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
                 return true;
             } else {
                 this.sql = sql;
-                SQLParser.ParsedSQL parsedSql = SQLParser.parseQuery(sql);
+                SQLParser.ParsedSQL parsedSql = this.parseQuery(sql);
                 parsedSql = SQLParser.substitutePreparedParams(parsedSql,
                         this.preparedStatementParams);
                 this.resultSet = this.execute(parsedSql);
@@ -202,6 +650,17 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
 
     }
 
+    /**
+     * Drops the cached results of the workspace after the MAQL DDL. The result cache key holds the metric
+     * URIs, e.g. the ALTER METRIC keeps the URI but changes the results of the metric.
+     */
+    private void invalidateResultCaches() {
+        ConnectionProperties properties = this.afmConnection.getConnectionProperties();
+        String workspaceUri = this.workspace != null ? this.workspace.getUri() : null;
+        ResultCache.shared().invalidate(properties.getHost(), workspaceUri);
+        ResultDiskCache.shared().invalidate(properties.getHost(), workspaceUri);
+    }
+
     /**
      * Execute CREATE METRIC statement
      *
@@ -361,16 +820,18 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
         LOGGER.info(String.format("unwrap iface='%s'", iface));
-        throw new SQLFeatureNotSupportedException("Statement.unwrap is not supported yet.");
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException(String.format("AfmStatement doesn't wrap '%s'.", iface.getName()));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    public boolean isWrapperFor(Class<?> iface) {
         LOGGER.info(String.format("isWrapperFor iface='%s'", iface));
-        throw new SQLFeatureNotSupportedException("Statement.isWrapperFor is not supported yet.");
+        return iface.isInstance(this);
     }
 
     /**
@@ -397,6 +858,16 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     @Override
     public void close() {
         LOGGER.info("close");
+        QueryControl control = this.queryControl;
+        if (control != null)
+            control.cancel();
+        if (this.resultSet != null) {
+            try {
+                this.resultSet.close();
+            } catch (SQLException e) {
+                LOGGER.warning(String.format("Can't close the ResultSet: %s", e.getMessage()));
+            }
+        }
         this.isClosed = true;
     }
 
@@ -460,16 +931,18 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     @Override
     public void setQueryTimeout(int seconds) {
         LOGGER.info(String.format("setQueryTimeout seconds='%d'", seconds));
-        this.queryTimeout = seconds;
+        this.queryTimeout = Math.max(0, seconds);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void cancel() throws SQLException {
+    public void cancel() {
         LOGGER.info("cancel");
-        throw new SQLFeatureNotSupportedException("Statement.cancel is not supported yet.");
+        QueryControl control = this.queryControl;
+        if (control != null)
+            control.cancel();
     }
 
     /**
@@ -568,7 +1041,7 @@ public class AfmStatement implements java.sql.Statement, PreparedStatement {
     @Override
     public int getResultSetType() {
         LOGGER.info("getResultSetType");
-        return AfmResultSet.TYPE;
+        return this.resultSetType;
     }
 
     /**
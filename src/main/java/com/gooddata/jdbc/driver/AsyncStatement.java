@@ -0,0 +1,32 @@
+package com.gooddata.jdbc.driver;
+
+import com.gooddata.jdbc.util.Flow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking query execution, obtained by statement.unwrap(AsyncStatement.class).
+ * The execution and the polling for its result run on the driver owned executors,
+ * the calling thread isn't blocked while the result is being computed.
+ */
+public interface AsyncStatement {
+
+    /**
+     * Executes the query asynchronously
+     * @param sql SQL query
+     * @return future completed with the ResultSet once its first page is ready, cancelling the future
+     * cancels the execution
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql);
+
+    /**
+     * Publishes the rows of the executed query with the backpressure, result pages are fetched
+     * as the subscriber requests the rows
+     * @return row publisher, cancelling the subscription closes the ResultSet
+     * @throws SQLException when the statement has no executed query
+     */
+    Flow.Publisher<Object[]> getRowPublisher() throws SQLException;
+
+}
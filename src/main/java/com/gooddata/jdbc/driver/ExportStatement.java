@@ -0,0 +1,23 @@
+package com.gooddata.jdbc.driver;
+
+import com.gooddata.jdbc.resultset.ResultExporter;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Bulk export of the query result to a file, obtained by statement.unwrap(ExportStatement.class).
+ * The result pages are written straight to the file without the per row JDBC overhead.
+ */
+public interface ExportStatement {
+
+    /**
+     * Exports the remaining rows of the executed query
+     * @param file target file, it is overwritten
+     * @param format CSV, TSV or JSON lines
+     * @return exported rows, bytes and the throughput
+     * @throws SQLException when the statement has no executed query, or the result can't be fetched or written
+     */
+    ResultExporter.Stats exportTo(Path file, ResultExporter.Format format) throws SQLException;
+
+}
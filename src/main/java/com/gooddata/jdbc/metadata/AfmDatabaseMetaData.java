@@ -1236,7 +1236,7 @@ public class AfmDatabaseMetaData implements java.sql.DatabaseMetaData {
      */
     @Override
     public boolean supportsResultSetType(int type) {
-        return false;
+        return type == ResultSet.TYPE_FORWARD_ONLY || type == ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     /**
@@ -0,0 +1,90 @@
+package com.gooddata.jdbc.parser;
+
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.SignedExpression;
+import net.sf.jsqlparser.expression.operators.arithmetic.Addition;
+import net.sf.jsqlparser.expression.operators.arithmetic.Division;
+import net.sf.jsqlparser.expression.operators.arithmetic.IntegerDivision;
+import net.sf.jsqlparser.expression.operators.arithmetic.Modulo;
+import net.sf.jsqlparser.expression.operators.arithmetic.Multiplication;
+import net.sf.jsqlparser.expression.operators.arithmetic.Subtraction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Folds the constant arithmetic expressions of the WHERE values, e.g. (2+5)*3, straight on the parsed
+ * expression tree with the exact BigDecimal arithmetic. The quotient that doesn't terminate is rounded
+ * to 34 digits (IEEE 754 decimal128).
+ */
+public class ConstantFolder {
+
+    private ConstantFolder() {
+    }
+
+    /**
+     * Folds the expression to its value
+     * @param e parsed expression
+     * @return value or null when the expression isn't a constant arithmetic expression
+     */
+    public static BigDecimal fold(Expression e) {
+        if (e instanceof LongValue)
+            return new BigDecimal(((LongValue) e).getStringValue());
+        if (e instanceof DoubleValue)
+            return new BigDecimal(e.toString());
+        if (e instanceof Parenthesis)
+            return fold(((Parenthesis) e).getExpression());
+        if (e instanceof SignedExpression) {
+            SignedExpression signed = (SignedExpression) e;
+            BigDecimal value = fold(signed.getExpression());
+            if (value == null)
+                return null;
+            switch (signed.getSign()) {
+                case '-':
+                    return value.negate();
+                case '+':
+                    return value;
+                default:
+                    return null;
+            }
+        }
+        if (e instanceof Addition || e instanceof Subtraction || e instanceof Multiplication
+                || e instanceof Division || e instanceof IntegerDivision || e instanceof Modulo) {
+            BinaryExpression binary = (BinaryExpression) e;
+            BigDecimal left = fold(binary.getLeftExpression());
+            BigDecimal right = fold(binary.getRightExpression());
+            if (left == null || right == null)
+                return null;
+            if (e instanceof Addition)
+                return left.add(right);
+            if (e instanceof Subtraction)
+                return left.subtract(right);
+            if (e instanceof Multiplication)
+                return left.multiply(right);
+            // the division by zero is left to the value validation
+            if (right.signum() == 0)
+                return null;
+            if (e instanceof Division)
+                return left.divide(right, MathContext.DECIMAL128);
+            if (e instanceof IntegerDivision)
+                return left.divideToIntegralValue(right);
+            return left.remainder(right);
+        }
+        return null;
+    }
+
+    /**
+     * Textual value of the folded expression without the trailing zeros, e.g. 3 for (3*5+3)/6
+     * @param value folded value
+     * @return plain number text
+     */
+    public static String toText(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        return (stripped.scale() < 0 ? stripped.setScale(0) : stripped).toPlainString();
+    }
+
+}
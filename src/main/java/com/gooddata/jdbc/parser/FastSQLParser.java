@@ -0,0 +1,351 @@
+package com.gooddata.jdbc.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single pass parser of the driver's SELECT dialect: a list of plain or quoted columns, an optional single
+ * FROM table, AND-only WHERE conditions with literal values, ORDER BY and LIMIT / OFFSET.
+ * The tokens are read straight from the SQL text without building any syntax tree. The parser doesn't
+ * report errors, any shape it doesn't recognize (subqueries, expressions, aliases, comments, ...) returns
+ * null and the SQLParser falls back to JSqlParser that handles it or reports the syntax error.
+ */
+public class FastSQLParser {
+
+    private static final int END = 0;
+    private static final int WORD = 1;
+    private static final int QUOTED = 2;
+    private static final int STRING = 3;
+    private static final int NUMBER = 4;
+    private static final int SYMBOL = 5;
+
+    // the bare words that are never parsed as column or table names
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "SELECT", "FROM", "WHERE", "AND", "OR", "NOT", "IN", "BETWEEN", "ORDER", "BY", "ASC", "DESC",
+            "LIMIT", "OFFSET", "AS", "IS", "NULL", "LIKE", "JOIN", "ON", "GROUP", "HAVING", "UNION", "DISTINCT",
+            "ALL", "TOP", "WITH", "CASE", "WHEN", "THEN", "ELSE", "END", "EXISTS", "INTO", "VALUES", "TRUE",
+            "FALSE", "FETCH", "FOR", "NULLS"));
+
+    // longest number literal that is surely a LongValue in JSqlParser
+    private static final int MAX_INTEGER_DIGITS = 18;
+
+    private final String sql;
+    private int position = 0;
+    private int type;
+    private String text;
+
+    private FastSQLParser(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Parses the SELECT statement of the driver's dialect
+     * @param sql SQL query
+     * @return parsed SQL query or null when the query has other shape
+     */
+    public static SQLParser.ParsedSQL parse(String sql) {
+        FastSQLParser parser = new FastSQLParser(sql);
+        parser.next();
+        return parser.parseSelect();
+    }
+
+    private SQLParser.ParsedSQL parseSelect() {
+        if (!this.acceptKeyword("SELECT"))
+            return null;
+        List<String> columns = new ArrayList<>();
+        do {
+            String column = this.acceptIdentifier();
+            if (column == null)
+                return null;
+            columns.add(column);
+        } while (this.acceptSymbol(","));
+
+        List<String> tables = new ArrayList<>();
+        if (this.acceptKeyword("FROM")) {
+            String table = this.acceptIdentifier();
+            if (table == null)
+                return null;
+            tables.add(table);
+        }
+
+        List<SQLParser.ParsedSQL.FilterExpression> filters = new ArrayList<>();
+        if (this.acceptKeyword("WHERE")) {
+            do {
+                SQLParser.ParsedSQL.FilterExpression filter = this.parseCondition();
+                if (filter == null)
+                    return null;
+                filters.add(filter);
+            } while (this.acceptKeyword("AND"));
+        }
+
+        List<SQLParser.ParsedSQL.OrderByExpression> orderBys = new ArrayList<>();
+        if (this.acceptKeyword("ORDER")) {
+            if (!this.acceptKeyword("BY"))
+                return null;
+            do {
+                // column name or its position in the SELECT list
+                String column;
+                if (this.type == NUMBER) {
+                    column = this.text;
+                    this.next();
+                } else {
+                    column = this.acceptIdentifier();
+                }
+                if (column == null)
+                    return null;
+                String order = "ASC";
+                if (this.acceptKeyword("DESC"))
+                    order = "DESC";
+                else
+                    this.acceptKeyword("ASC");
+                orderBys.add(new SQLParser.ParsedSQL.OrderByExpression(order, column));
+            } while (this.acceptSymbol(","));
+        }
+
+        int limit = Integer.MAX_VALUE;
+        int offset = 0;
+        if (this.acceptKeyword("LIMIT")) {
+            limit = this.acceptInteger();
+            if (limit < 0)
+                return null;
+        }
+        if (this.acceptKeyword("OFFSET")) {
+            offset = this.acceptInteger();
+            if (offset < 0)
+                return null;
+        }
+        if (this.type != END)
+            return null;
+        return new SQLParser.ParsedSQL(columns, tables, filters, orderBys, limit, offset);
+    }
+
+    private SQLParser.ParsedSQL.FilterExpression parseCondition() {
+        String column = this.acceptIdentifier();
+        if (column == null)
+            return null;
+        boolean isNot = this.acceptKeyword("NOT");
+        if (this.acceptKeyword("IN")) {
+            if (!this.acceptSymbol("("))
+                return null;
+            List<String> values = new ArrayList<>();
+            do {
+                String value = this.acceptValue();
+                if (value == null)
+                    return null;
+                values.add(value);
+            } while (this.acceptSymbol(","));
+            if (!this.acceptSymbol(")"))
+                return null;
+            return new SQLParser.ParsedSQL.FilterExpression(isNot
+                    ? SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_IN
+                    : SQLParser.ParsedSQL.FilterExpression.OPERATOR_IN, column, values);
+        }
+        if (this.acceptKeyword("BETWEEN")) {
+            String start = this.acceptValue();
+            if (start == null || !this.acceptKeyword("AND"))
+                return null;
+            String end = this.acceptValue();
+            if (end == null)
+                return null;
+            return new SQLParser.ParsedSQL.FilterExpression(isNot
+                    ? SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_BETWEEN
+                    : SQLParser.ParsedSQL.FilterExpression.OPERATOR_BETWEEN, column, Arrays.asList(start, end));
+        }
+        if (isNot || this.type != SYMBOL)
+            return null;
+        int operator;
+        switch (this.text) {
+            case "=":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_EQUAL;
+                break;
+            case "<>":
+            case "!=":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_NOT_EQUAL;
+                break;
+            case ">":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_GREATER;
+                break;
+            case ">=":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_GREATER_OR_EQUAL;
+                break;
+            case "<":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_LOWER;
+                break;
+            case "<=":
+                operator = SQLParser.ParsedSQL.FilterExpression.OPERATOR_LOWER_OR_EQUAL;
+                break;
+            default:
+                return null;
+        }
+        this.next();
+        String value = this.acceptValue();
+        if (value == null)
+            return null;
+        return new SQLParser.ParsedSQL.FilterExpression(operator, column, Collections.singletonList(value));
+    }
+
+    /**
+     * Literal value in the same text form as the JSqlParser expression
+     * @return string literal with quotes, number, negative number or the prepared parameter placeholder
+     */
+    private String acceptValue() {
+        String value;
+        if (this.type == STRING || this.type == NUMBER || (this.type == SYMBOL && this.text.equals("?"))) {
+            value = this.text;
+        } else if (this.type == SYMBOL && this.text.equals("-")) {
+            this.next();
+            if (this.type != NUMBER)
+                return null;
+            value = "-" + this.text;
+        } else {
+            return null;
+        }
+        this.next();
+        // arithmetic is folded by the JSqlParser path
+        if (this.type == SYMBOL && "+-*/%".contains(this.text))
+            return null;
+        return value;
+    }
+
+    /**
+     * Column or table name without the quotes
+     * @return name or null
+     */
+    private String acceptIdentifier() {
+        String identifier;
+        if (this.type == QUOTED)
+            identifier = this.text;
+        else if (this.type == WORD && !RESERVED.contains(this.text.toUpperCase()))
+            identifier = this.text;
+        else
+            return null;
+        this.next();
+        return identifier;
+    }
+
+    /**
+     * Non-negative int
+     * @return value or -1
+     */
+    private int acceptInteger() {
+        if (this.type != NUMBER || this.text.indexOf('.') >= 0 || this.text.length() > 9)
+            return -1;
+        int value = Integer.parseInt(this.text);
+        this.next();
+        return value;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (this.type == WORD && this.text.equalsIgnoreCase(keyword)) {
+            this.next();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        if (this.type == SYMBOL && this.text.equals(symbol)) {
+            this.next();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next token, the unsupported characters are returned as symbols that no rule accepts
+     */
+    private void next() {
+        String s = this.sql;
+        int i = this.position;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        if (i >= s.length()) {
+            this.type = END;
+            this.text = null;
+            this.position = i;
+            return;
+        }
+        int start = i;
+        boolean isSupported = true;
+        char c = s.charAt(i);
+        if (isWordStart(c)) {
+            while (i < s.length() && isWordPart(s.charAt(i))) {
+                i++;
+            }
+            this.type = WORD;
+            this.text = s.substring(start, i);
+        } else if (c >= '0' && c <= '9') {
+            while (i < s.length() && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i + 1 < s.length() && s.charAt(i) == '.' && isDigit(s.charAt(i + 1))) {
+                i++;
+                while (i < s.length() && isDigit(s.charAt(i))) {
+                    i++;
+                }
+            }
+            this.type = NUMBER;
+            this.text = s.substring(start, i);
+            // exponents, suffixes, long integers and the like are left to JSqlParser
+            isSupported = !(i < s.length() && (isWordPart(s.charAt(i)) || s.charAt(i) == '.'))
+                    && (this.text.indexOf('.') >= 0 || this.text.length() <= MAX_INTEGER_DIGITS);
+        } else if (c == '"') {
+            int close = s.indexOf('"', i + 1);
+            this.type = QUOTED;
+            this.text = close > i + 1 ? s.substring(i + 1, close) : null;
+            i = close + 1;
+            // escaped quotes and unterminated or empty names are left to JSqlParser
+            isSupported = this.text != null && !(i < s.length() && s.charAt(i) == '"');
+        } else if (c == '\'') {
+            i++;
+            while (true) {
+                int close = s.indexOf('\'', i);
+                if (close < 0) {
+                    i = -1;
+                    break;
+                }
+                i = close + 1;
+                if (i < s.length() && s.charAt(i) == '\'')
+                    i++;
+                else
+                    break;
+            }
+            this.type = STRING;
+            this.text = i > 0 ? s.substring(start, i) : null;
+            isSupported = this.text != null && this.text.indexOf('\\') < 0;
+        } else {
+            i++;
+            if (i < s.length() && ((c == '<' && (s.charAt(i) == '>' || s.charAt(i) == '='))
+                    || ((c == '>' || c == '!') && s.charAt(i) == '=')))
+                i++;
+            this.type = SYMBOL;
+            this.text = s.substring(start, i);
+        }
+        if (isSupported) {
+            this.position = i;
+        } else {
+            // the rest of the SQL is left unrecognized
+            this.type = SYMBOL;
+            this.text = "";
+            this.position = s.length();
+        }
+    }
+
+    private static boolean isWordStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+        return isWordStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
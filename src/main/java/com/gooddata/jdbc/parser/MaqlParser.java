@@ -11,6 +11,17 @@ import java.util.regex.Pattern;
 
 public class MaqlParser {
 
+    private static final Pattern QUOTED_TITLE_PATTERN = Pattern.compile("(\".*?\")+");
+    private static final Pattern WHERE_PATTERN = Pattern.compile(
+            "^\\s?.*?where\\s+(.*?)\\s?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ELEMENT_PATTERN = Pattern.compile("(['\"].*?['\"])");
+    private static final Pattern CREATE_OR_ALTER_PATTERN = Pattern.compile(
+            "^\\s?(create|alter)\\s+metric\\s+\"(.*?)\"\\s+as\\s+(.*?)\\s?[;]?\\s?$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_OR_DESCRIBE_PATTERN = Pattern.compile(
+            "^\\s?(drop|describe)\\s+(metric|variable)\\s+\"(.*?)\"\\s?[;]?\\s?$",
+            Pattern.CASE_INSENSITIVE);
+
     /**
      * Parsed CREATE METRIC statement
      */
@@ -75,23 +86,19 @@ public class MaqlParser {
      */
     public ParsedCreateMetricStatement parseMaql(String metricName, String metricMaql) throws JSQLParserException {
         List<String> factsMetricsOrAttributeTitles = new ArrayList<>();
-        Pattern p1 = Pattern.compile("(\".*?\")+");
-        Matcher m1 = p1.matcher(metricMaql);
+        Matcher m1 = QUOTED_TITLE_PATTERN.matcher(metricMaql);
         while (m1.find()) {
             for (int i = 1; i <= m1.groupCount(); i++) {
                 factsMetricsOrAttributeTitles.add(m1.group(i).replaceAll("\"",""));
             }
         }
 
-        Pattern p3 = Pattern.compile(
-                "^\\s?.*?where\\s+(.*?)\\s?$",Pattern.CASE_INSENSITIVE);
-        Matcher m3 = p3.matcher(metricMaql);
+        Matcher m3 = WHERE_PATTERN.matcher(metricMaql);
         Map<String, String> attributeElementToAttributeNameLookup = new HashMap<>();
         List<String> attributeElementValues = new ArrayList<>();
         if( m3.find()) {
             String whereClause = m3.group(1);
-            Pattern p2 = Pattern.compile("(['\"].*?['\"])");
-            Matcher m2 = p2.matcher(whereClause);
+            Matcher m2 = ELEMENT_PATTERN.matcher(whereClause);
             String leadingAttribute = null;
             while (m2.find()) {
                 for (int i = 1; i <= m1.groupCount(); i++) {
@@ -122,10 +129,7 @@ public class MaqlParser {
      */
     public ParsedCreateMetricStatement parseCreateOrAlterMetric(String maql) throws JSQLParserException {
         String sqlWithNoNewlines = maql.replaceAll("\n"," ");
-        Pattern p = Pattern.compile(
-                "^\\s?(create|alter)\\s+metric\\s+\"(.*?)\"\\s+as\\s+(.*?)\\s?[;]?\\s?$",
-                Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(sqlWithNoNewlines);
+        Matcher m = CREATE_OR_ALTER_PATTERN.matcher(sqlWithNoNewlines);
         boolean b = m.matches();
         if (!b || m.groupCount() != 3)
             throw new JSQLParserException(String.format("Wrong CREATE METRIC syntax (e.g. no quoted names of metrics or identifiers): '%s'", maql));
@@ -161,10 +165,7 @@ public class MaqlParser {
      */
     public Describe parseDropOrDescribeMetric(String maql) throws JSQLParserException {
         String sqlWithNoNewlines = maql.replaceAll("\n"," ");
-        Pattern p = Pattern.compile(
-                "^\\s?(drop|describe)\\s+(metric|variable)\\s+\"(.*?)\"\\s?[;]?\\s?$",
-                Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(sqlWithNoNewlines);
+        Matcher m = DROP_OR_DESCRIBE_PATTERN.matcher(sqlWithNoNewlines);
         boolean b = m.matches();
         if (!b || m.groupCount() != 3)
             throw new JSQLParserException(String.format("Wrong DROP METRIC syntax (e.g. no quoted names of " +
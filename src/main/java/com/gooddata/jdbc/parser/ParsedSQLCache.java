@@ -0,0 +1,123 @@
+package com.gooddata.jdbc.parser;
+
+import com.gooddata.jdbc.util.ConnectionProperties;
+import net.sf.jsqlparser.JSQLParserException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Driver-wide LRU cache of the parsed SELECT statements keyed by the SQL text.
+ * Repeated queries, e.g. from dashboards, skip the JSqlParser AST and the visitor passes.
+ * The cache keeps the parsed templates, every hit returns a copy that the prepared parameter
+ * substitution can change without corrupting the template.
+ */
+public class ParsedSQLCache {
+
+    private final static Logger LOGGER = Logger.getLogger(ParsedSQLCache.class.getName());
+
+    private static final ParsedSQLCache SHARED = new ParsedSQLCache(ConnectionProperties.DEFAULT_PARSED_SQL_CACHE_SIZE);
+
+    // access ordered, the eldest entry is the least recently used statement
+    private final LinkedHashMap<String, SQLParser.ParsedSQL> statements =
+            new LinkedHashMap<String, SQLParser.ParsedSQL>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SQLParser.ParsedSQL> eldest) {
+            if (this.size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private int maxEntries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructor
+     * @param maxEntries max number of cached statements
+     */
+    public ParsedSQLCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The cache shared by all connections in the JVM
+     * @return shared cache
+     */
+    public static ParsedSQLCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Parses the SELECT statement or returns a copy of the cached parsed statement
+     * @param sql SQL query
+     * @return parsed SQL query owned by the caller
+     * @throws JSQLParserException wrong syntax
+     */
+    public SQLParser.ParsedSQL parse(String sql) throws JSQLParserException {
+        SQLParser.ParsedSQL template = this.get(sql);
+        if (template == null) {
+            // parsed outside of the lock, a concurrent miss of the same SQL parses it twice
+            template = SQLParser.parseQuery(sql).copy();
+            this.put(sql, template);
+        }
+        return template.copy();
+    }
+
+    private synchronized SQLParser.ParsedSQL get(String sql) {
+        SQLParser.ParsedSQL template = this.statements.get(sql);
+        if (template == null)
+            this.misses++;
+        else
+            this.hits++;
+        return template;
+    }
+
+    private synchronized void put(String sql, SQLParser.ParsedSQL template) {
+        if (this.maxEntries <= 0)
+            return;
+        LOGGER.fine(String.format("Caching parsed query '%s'", sql));
+        this.statements.put(sql, template);
+    }
+
+    /**
+     * Grows the cache to at least the given number of entries. Connections share the cache,
+     * the largest configured size wins.
+     * @param maxEntries max number of cached statements
+     */
+    public synchronized void ensureCapacity(int maxEntries) {
+        this.maxEntries = Math.max(this.maxEntries, maxEntries);
+    }
+
+    /**
+     * Drops all cached statements
+     */
+    public synchronized void clear() {
+        this.statements.clear();
+    }
+
+    public synchronized int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public synchronized int size() {
+        return this.statements.size();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+}
@@ -9,9 +9,8 @@ import net.sf.jsqlparser.expression.operators.relational.*;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.select.*;
-import org.apache.commons.jexl2.JexlEngine;
-import org.apache.commons.jexl2.MapContext;
 
+import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.*;
 import java.text.SimpleDateFormat;
@@ -28,6 +27,9 @@ public class SQLParser {
 
     private final static Logger LOGGER = Logger.getLogger(ParsedSQL.class.getName());
 
+    private static final Pattern DATATYPE_PATTERN = Pattern.compile(
+            "^\\s?([a-zA-Z]+)\\s?(\\(\\s?([0-9]+)\\s?(\\s?,\\s?([0-9]+)\\s?)?\\s?\\))?\\s?$");
+
     /**
      * Parsed SQL result
      */
@@ -156,6 +158,8 @@ public class SQLParser {
         private final int limit;
         private final int offset;
         private final List<ParsedSQL.OrderByExpression> orderBys;
+        // WHERE contains a constant predicate that is always false, e.g. 1=0
+        private final boolean isAlwaysFalse;
 
         /**
          * Parsed SQL structure - main result from parsing
@@ -169,12 +173,29 @@ public class SQLParser {
         public ParsedSQL(List<String> columns, List<String> tables, List<FilterExpression> filters,
                          List<ParsedSQL.OrderByExpression> orderBys,
                          int limit, int offset) {
+            this(columns, tables, filters, orderBys, limit, offset, false);
+        }
+
+        /**
+         * Parsed SQL structure - main result from parsing
+         * @param columns SQL columns
+         * @param tables SQL tables
+         * @param filters SQL filters
+         * @param orderBys ORDER BY elements
+         * @param limit SQL LIMIT
+         * @param offset SQL OFFSTE
+         * @param isAlwaysFalse WHERE is always false
+         */
+        public ParsedSQL(List<String> columns, List<String> tables, List<FilterExpression> filters,
+                         List<ParsedSQL.OrderByExpression> orderBys,
+                         int limit, int offset, boolean isAlwaysFalse) {
             this.columns = columns;
             this.tables = tables;
             this.filters = filters;
             this.orderBys = orderBys;
             this.limit = limit;
             this.offset = offset;
+            this.isAlwaysFalse = isAlwaysFalse;
         }
 
         public List<OrderByExpression> getOrderBys() {
@@ -201,18 +222,72 @@ public class SQLParser {
             return offset;
         }
 
-    }
+        public boolean isAlwaysFalse() {
+            return isAlwaysFalse;
+        }
+
+        /**
+         * Can't the query return any rows? Schema probes, e.g. Spark's
+         * SELECT * FROM (...) SPARK_GEN_SUBQ_0 WHERE 1=0, are answered without the execution.
+         * @return true for the always false WHERE or LIMIT 0
+         */
+        public boolean isEmptyResult() {
+            return this.isAlwaysFalse || this.limit == 0;
+        }
+
+        /**
+         * Copy with its own filter expressions and unmodifiable lists, the prepared parameter substitution
+         * in the copy doesn't change this instance
+         * @return copy of the parsed SQL
+         */
+        public ParsedSQL copy() {
+            List<FilterExpression> filterCopies = new ArrayList<>(this.filters.size());
+            for (FilterExpression f : this.filters) {
+                filterCopies.add(new FilterExpression(f.getOperator(), f.getColumn(),
+                        Collections.unmodifiableList(new ArrayList<>(f.getValues()))));
+            }
+            return new ParsedSQL(Collections.unmodifiableList(this.columns),
+                    Collections.unmodifiableList(this.tables), Collections.unmodifiableList(filterCopies),
+                    Collections.unmodifiableList(this.orderBys), this.limit, this.offset, this.isAlwaysFalse);
+        }
 
-    private static final JexlEngine jexl = new JexlEngine();
+    }
 
     private static String evaluateExpression(Expression e) {
         if (e instanceof BinaryExpression) {
-            org.apache.commons.jexl2.Expression jexlExpr = jexl.createExpression(e.toString());
-            return jexlExpr.evaluate(new MapContext()).toString();
+            BigDecimal value = ConstantFolder.fold(e);
+            if (value != null)
+                return ConstantFolder.toText(value);
         }
         return e.toString();
     }
 
+    /**
+     * Compares the constant operands, e.g. 1=0 or 1=1 that the BI tools add to their queries
+     * @param e comparison
+     * @return result of the comparison or null when an operand isn't constant
+     */
+    private static Boolean compareConstants(BinaryExpression e) {
+        BigDecimal left = ConstantFolder.fold(e.getLeftExpression());
+        BigDecimal right = left != null ? ConstantFolder.fold(e.getRightExpression()) : null;
+        if (right == null)
+            return null;
+        int c = left.compareTo(right);
+        if (e instanceof EqualsTo)
+            return c == 0;
+        if (e instanceof NotEqualsTo)
+            return c != 0;
+        if (e instanceof GreaterThan)
+            return c > 0;
+        if (e instanceof GreaterThanEquals)
+            return c >= 0;
+        if (e instanceof MinorThan)
+            return c < 0;
+        if (e instanceof MinorThanEquals)
+            return c <= 0;
+        return null;
+    }
+
     /**
      *
      * @param sql parsed SQL
@@ -231,13 +306,27 @@ public class SQLParser {
     }
 
     /**
-     * Main parser method for SELECT queries
+     * Main parser method for SELECT queries. The queries of the driver's plain dialect are parsed
+     * by the FastSQLParser, other queries by JSqlParser.
      * @param query SQL query
      * @return parsed SQL query
      * @throws JSQLParserException wrong syntax
      */
     public static ParsedSQL parseQuery(String query) throws JSQLParserException {
         SQLParser.LOGGER.fine(String.format("Parsing query '%s'", query));
+        ParsedSQL parsed = FastSQLParser.parse(query);
+        if (parsed != null)
+            return parsed;
+        return parseQueryWithJSqlParser(query);
+    }
+
+    /**
+     * Parses the SELECT query with the full JSqlParser grammar
+     * @param query SQL query
+     * @return parsed SQL query
+     * @throws JSQLParserException wrong syntax
+     */
+    static ParsedSQL parseQueryWithJSqlParser(String query) throws JSQLParserException {
         final List<ParsedSQL> results = new ArrayList<>();
         net.sf.jsqlparser.statement.Statement st = CCJSqlParserUtil.parse(query);
         if (st instanceof Select) {
@@ -245,6 +334,7 @@ public class SQLParser {
             SelectBody sb = sl.getSelectBody();
 
             final int[] limitAndOffset = new int[]{Integer.MAX_VALUE, 0};
+            final boolean[] isAlwaysFalse = new boolean[]{false};
             List<String> columns = new ArrayList<>();
             List<String> tables = new ArrayList<>();
             List<ParsedSQL.FilterExpression> filters = new ArrayList<>();
@@ -315,6 +405,13 @@ public class SQLParser {
                     ExpressionVisitor ev = new ExpressionVisitorAdapter() {
 
                         private void handleVisit(BinaryExpression e, int operator) {
+                            Boolean constant = compareConstants(e);
+                            if (constant != null) {
+                                // the constant predicate doesn't filter any column
+                                if (!constant)
+                                    isAlwaysFalse[0] = true;
+                                return;
+                            }
                             String columnName = e.getLeftExpression().toString()
                                     .replaceAll("\"", "");
                             String value = evaluateExpression(e.getRightExpression());
@@ -411,10 +508,16 @@ public class SQLParser {
                 throw errors.get(0);
             }
             if ( results.size()>0 ) {
-                return results.get(0);
+                ParsedSQL subquery = results.get(0);
+                // the outer query of the Spark schema probe doesn't return any rows
+                if (isAlwaysFalse[0] || limitAndOffset[0] == 0)
+                    return new ParsedSQL(subquery.getColumns(), subquery.getTables(), subquery.getFilters(),
+                            subquery.getOrderBys(), subquery.getLimit(), subquery.getOffset(), true);
+                return subquery;
             }
             else {
-                return new ParsedSQL(columns, tables, filters, orderBys, limitAndOffset[0], limitAndOffset[1]);
+                return new ParsedSQL(columns, tables, filters, orderBys, limitAndOffset[0], limitAndOffset[1],
+                        isAlwaysFalse[0]);
             }
         } else {
             throw new JSQLParserException("Only SELECT SQL statements are supported.");
@@ -583,8 +686,7 @@ public class SQLParser {
         String dataTypeName;
         int size = 0;
         int precision = 0;
-        Pattern p1 = Pattern.compile("^\\s?([a-zA-Z]+)\\s?(\\(\\s?([0-9]+)\\s?(\\s?,\\s?([0-9]+)\\s?)?\\s?\\))?\\s?$");
-        Matcher m1 = p1.matcher(dataType);
+        Matcher m1 = DATATYPE_PATTERN.matcher(dataType);
         boolean b = m1.matches();
         int cnt = m1.groupCount();
         dataTypeName = m1.group(1);
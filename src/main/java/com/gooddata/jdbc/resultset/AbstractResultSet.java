@@ -565,7 +565,7 @@ public abstract class AbstractResultSet implements java.sql.ResultSet {
      */
     @Override
     public boolean last() {
-        return this.absolute(this.getRowCount() - 1);
+        return this.absolute(this.getRowCount());
     }
 
     /**
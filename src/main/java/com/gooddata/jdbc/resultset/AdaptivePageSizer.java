@@ -0,0 +1,100 @@
+package com.gooddata.jdbc.resultset;
+
+import java.util.logging.Logger;
+
+/**
+ * Adjusts the result page row limit from page to page. The next page size is derived from the measured
+ * server response time per row and the decoded bytes per row, so a page takes about the target latency
+ * and doesn't exceed the memory ceiling. The size stays within the configured min and max rows.
+ */
+public class AdaptivePageSizer {
+
+    private final static Logger LOGGER = Logger.getLogger(AdaptivePageSizer.class.getName());
+
+    // Weight of the last measured page in the smoothed estimates
+    private static final double SMOOTHING = 0.5;
+    // Max growth or shrink factor between two pages
+    private static final double MAX_STEP = 2.0;
+
+    private final int minRows;
+    private final int maxRows;
+    private final long targetLatencyMs;
+    private final long maxPageBytes;
+
+    private int pageSize;
+    // smoothed measurements, negative until the first page is measured
+    private double millisPerRow = -1;
+    private double bytesPerRow = -1;
+
+    /**
+     * Constructor
+     * @param initialRows size of the first page
+     * @param minRows min page size
+     * @param maxRows max page size
+     * @param targetLatencyMs target response time of a page
+     * @param maxPageBytes memory ceiling of a decoded page
+     */
+    public AdaptivePageSizer(int initialRows, int minRows, int maxRows, long targetLatencyMs, long maxPageBytes) {
+        this.minRows = Math.max(1, minRows);
+        this.maxRows = Math.max(this.minRows, maxRows);
+        this.targetLatencyMs = targetLatencyMs;
+        this.maxPageBytes = maxPageBytes;
+        this.pageSize = this.clamp(initialRows);
+    }
+
+    /**
+     * Row limit of the next page
+     * @return number of rows
+     */
+    public synchronized int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Records the fetched page and computes the next page size
+     * @param rows number of rows in the page
+     * @param latencyMs page response and decode time
+     * @param pageBytes decoded page size
+     */
+    public synchronized void record(int rows, long latencyMs, long pageBytes) {
+        if (rows <= 0)
+            return;
+        this.millisPerRow = smooth(this.millisPerRow, (double) Math.max(1, latencyMs) / rows);
+        this.adjust(rows, pageBytes);
+    }
+
+    /**
+     * Records only the size of the page whose response time isn't the transfer time, e.g. the first page
+     * that waits for the whole AFM computation. The page size isn't grown until a latency is measured.
+     * @param rows number of rows in the page
+     * @param pageBytes decoded page size
+     */
+    public synchronized void recordSize(int rows, long pageBytes) {
+        if (rows <= 0)
+            return;
+        this.adjust(rows, pageBytes);
+    }
+
+    private void adjust(int rows, long pageBytes) {
+        this.bytesPerRow = smooth(this.bytesPerRow, (double) Math.max(1, pageBytes) / rows);
+        double byLatency = this.millisPerRow < 0 ? this.pageSize : this.targetLatencyMs / this.millisPerRow;
+        double byMemory = this.maxPageBytes / this.bytesPerRow;
+        double next = Math.min(byLatency, byMemory);
+        next = Math.max(this.pageSize / MAX_STEP, Math.min(this.pageSize * MAX_STEP, next));
+        int previous = this.pageSize;
+        this.pageSize = this.clamp((int) Math.min(Integer.MAX_VALUE, next));
+        if (previous != this.pageSize) {
+            LOGGER.fine(String.format("Adaptive page size changed from '%d' to '%d' rows, ms/row='%.4f', " +
+                    "bytes/row='%.1f'", previous, this.pageSize, this.millisPerRow, this.bytesPerRow));
+        }
+    }
+
+    private static double smooth(double previous, double measured) {
+        return previous < 0 ? measured : SMOOTHING * measured + (1 - SMOOTHING) * previous;
+    }
+
+    private int clamp(int rows) {
+        return Math.max(this.minRows, Math.min(this.maxRows, rows));
+    }
+
+}
@@ -1,25 +1,39 @@
 package com.gooddata.jdbc.resultset;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.gooddata.jdbc.catalog.CatalogEntry;
+import com.gooddata.jdbc.driver.AfmDriver;
 import com.gooddata.jdbc.metadata.AfmResultSetMetaData;
+import com.gooddata.jdbc.parser.DataTypeParser;
+import com.gooddata.jdbc.parser.SQLParser;
+import com.gooddata.jdbc.util.ConnectionProperties;
+import com.gooddata.jdbc.util.DriverExecutors;
 import com.gooddata.sdk.model.executeafm.Execution;
 import com.gooddata.sdk.model.executeafm.ResultPage;
 import com.gooddata.sdk.model.executeafm.afm.Afm;
 import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
-import com.gooddata.sdk.model.executeafm.result.*;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
 import com.gooddata.sdk.model.executeafm.resultspec.Dimension;
 import com.gooddata.sdk.model.executeafm.resultspec.ResultSpec;
 import com.gooddata.sdk.model.executeafm.resultspec.SortItem;
 import com.gooddata.sdk.model.project.Project;
-import com.gooddata.sdk.service.FutureResult;
 import com.gooddata.sdk.service.executeafm.ExecuteAfmService;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -30,32 +44,80 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 
 	private final static Logger LOGGER = Logger.getLogger(AfmResultSet.class.getName());
 
+	// Result page size used when the statement doesn't set the fetch size
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+	// Arrow reader the ResultSet unwraps to, Arrow is an optional dependency
+	private static final String ARROW_READER = "org.apache.arrow.vector.ipc.ArrowReader";
+	// Serves the empty pages of the query that can't return any rows
+	private static final ResultPageReader EMPTY_RESULT = (response, page, metricCount, dictionaries) ->
+			ResultPageBuffer.empty(page.getOffsets().get(0), metricCount, dictionaries);
+
 	// GD workspace
 	private final Project workspace;
 	// AFM Service
 	private final ExecuteAfmService gdAfm;
+	// Reads the result pages of the execution
+	private final ResultPageReader pageReader;
 	// AFM execution spec
 	private final Afm afm;
-	// Current result
-	private ExecutionResult afmExecutionResult;
-	// Results paging
-	private Paging paging;
-	// current row offset in current page
-	private int pageOffset = 0;
+	// AFM execution response - all result pages are fetched against this single execution
+	private final ExecutionResponse executionResponse;
+	// Current decoded result page
+	private ResultPageBuffer page;
+	// page past the current page fetched by the copies that don't move the cursor
+	private ResultPageBuffer followingPage;
 	// AFM columns
 	private final List<CatalogEntry> columns;
 	// JDBC statement
 	private final Statement statement;
-	// SQL LIMIT
+	// SQL LIMIT capped by the statement max rows
 	private final int sqlLimit;
 	// SQL OFFSET
 	private final int sqlOffset;
 	// Order BY elements
 	private final List<SortItem> orderBys;
+	// Background prefetch of the following result pages
+	private final ResultPagePrefetcher prefetcher;
+	// Fraction of the current page after which the following pages are prefetched
+	private final double prefetchWatermark;
+	// Dedicated workers of the parallel fetch (null when the parallel fetch is off)
+	private final ExecutorService parallelFetchExecutor;
+	// ResultSet type - TYPE_FORWARD_ONLY or TYPE_SCROLL_INSENSITIVE
+	private final int resultSetType;
+	// Recently used pages of the scrollable ResultSet
+	private final ResultPageCache pageCache;
+	// Adjusts the page size from page to page (null when the fetch size is fixed)
+	private final AdaptivePageSizer pageSizer;
+	// Key of the result in the driver-wide result cache (null when the result cache is off)
+	private final ResultCacheKey resultCacheKey;
+	// Pages collected for the result cache until the whole result is fetched
+	private TreeMap<Integer, ResultPageBuffer> resultCachePages;
+	private final long resultCacheTtlMs;
+	private final long persistentResultCacheTtlMs;
+	private final int resultCacheMaxRows;
+	// Publishes the rows to a reactive subscriber (created on demand)
+	private ResultRowPublisher rowPublisher;
+	private boolean isClosed = false;
 
 	// Mapping between the column positions in AFM and in SELECT
 	private int[] columnStatementPosition;
+	// Is the SELECT column a metric?
+	private boolean[] isMetricColumn;
+	// java.sql.Types of the SELECT columns
+	private int[] columnSqlTypes;
+	// 0 based index of the first SELECT column with the label
+	private final Map<String, Integer> columnIndexes = new HashMap<>();
+	private int metricCount;
+	private int attributeCount;
+	// Attribute value dictionaries shared by all pages
+	private AttributeDictionary[] dictionaries;
+	private final java.sql.ResultSetMetaData metaData;
 	private int currentRowNum = -1;
+	// rows of the SQL LIMIT window, known from the first page
+	private int rowCount = 0;
+	// page whose following pages were already requested by the prefetch
+	private ResultPageBuffer prefetchedPage;
+	private boolean wasNull = false;
 
 	/**
 	 * Constructor
@@ -67,57 +129,464 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 	 * @param orderBys SQL ORDER BY
 	 * @param sqlLimit SQL LIMIT number
 	 * @param sqlOffset SQL OFFSET number
+	 * @param properties connection properties
+	 * @throws SQLException when the first result page can't be fetched
 	 */
 	public AfmResultSet(Statement statement, Project workspace, ExecuteAfmService afmService, Afm afm,
-						List<CatalogEntry> columns, List<SortItem> orderBys, int sqlLimit, int sqlOffset) {
+						List<CatalogEntry> columns, List<SortItem> orderBys, int sqlLimit, int sqlOffset,
+						ConnectionProperties properties) throws SQLException {
+		this(statement, workspace, afmService, new SdkResultPageReader(afmService), afm, columns, orderBys,
+				sqlLimit, sqlOffset, properties);
+	}
+
+	/**
+	 * Constructor
+	 * @param statement SQL statement
+	 * @param workspace GD workspace
+	 * @param afmService GD AFM execution service
+	 * @param pageReader reads the result pages of the execution
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @param sqlLimit SQL LIMIT number
+	 * @param sqlOffset SQL OFFSET number
+	 * @param properties connection properties
+	 * @throws SQLException when the first result page can't be fetched
+	 */
+	public AfmResultSet(Statement statement, Project workspace, ExecuteAfmService afmService,
+						ResultPageReader pageReader, Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys,
+						int sqlLimit, int sqlOffset, ConnectionProperties properties) throws SQLException {
+		this(statement, workspace, afmService, pageReader, afm, columns, orderBys, sqlLimit, sqlOffset, properties,
+				null);
+	}
+
+	/**
+	 * Constructor
+	 * @param statement SQL statement
+	 * @param workspace GD workspace
+	 * @param afmService GD AFM execution service
+	 * @param pageReader reads the result pages of the execution
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @param sqlLimit SQL LIMIT number
+	 * @param sqlOffset SQL OFFSET number
+	 * @param properties connection properties
+	 * @param executionResponse response of the already executed AFM, null executes the AFM
+	 * @throws SQLException when the first result page can't be fetched
+	 */
+	public AfmResultSet(Statement statement, Project workspace, ExecuteAfmService afmService,
+						ResultPageReader pageReader, Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys,
+						int sqlLimit, int sqlOffset, ConnectionProperties properties,
+						ExecutionResponse executionResponse) throws SQLException {
+		this(statement, workspace, afmService, pageReader, afm, columns, orderBys, sqlLimit, sqlOffset, properties,
+				null, executionResponse, null, false);
+	}
+
+	/**
+	 * Constructor of the ResultSet whose result was already looked up or computed by the async execution
+	 * @param statement SQL statement
+	 * @param workspace GD workspace
+	 * @param afmService GD AFM execution service
+	 * @param pageReader reads the result pages of the execution
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @param sqlLimit SQL LIMIT number
+	 * @param sqlOffset SQL OFFSET number
+	 * @param properties connection properties
+	 * @param cachedResult result found by findCachedResult, null when the result isn't cached
+	 * @param executionResponse response of the already executed AFM, ignored with the cached result
+	 * @param firstResult ready result of the getFirstPage window, null reads the first page
+	 * @throws SQLException when the first result page can't be fetched
+	 */
+	public AfmResultSet(Statement statement, Project workspace, ExecuteAfmService afmService,
+						ResultPageReader pageReader, Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys,
+						int sqlLimit, int sqlOffset, ConnectionProperties properties, CachedResultReader cachedResult,
+						ExecutionResponse executionResponse, ExecutionResult firstResult) throws SQLException {
+		this(statement, workspace, afmService, pageReader, afm, columns, orderBys, sqlLimit, sqlOffset, properties,
+				cachedResult, executionResponse, firstResult, false);
+	}
+
+	/**
+	 * Creates the ResultSet of the query that can't return any rows, e.g. the schema probe
+	 * SELECT * FROM (...) SPARK_GEN_SUBQ_0 WHERE 1=0. The AFM isn't executed, the metadata
+	 * is built from the catalog columns.
+	 * @param statement SQL statement
+	 * @param workspace GD workspace
+	 * @param afmService GD AFM execution service
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @param sqlOffset SQL OFFSET number
+	 * @param properties connection properties
+	 * @return empty ResultSet
+	 * @throws SQLException when the ResultSet can't be created
+	 */
+	public static AfmResultSet empty(Statement statement, Project workspace, ExecuteAfmService afmService, Afm afm,
+									 List<CatalogEntry> columns, List<SortItem> orderBys, int sqlOffset,
+									 ConnectionProperties properties) throws SQLException {
+		return new AfmResultSet(statement, workspace, afmService, EMPTY_RESULT, afm, columns, orderBys, 0,
+				sqlOffset, properties, null, null, null, true);
+	}
+
+	private AfmResultSet(Statement statement, Project workspace, ExecuteAfmService afmService,
+						 ResultPageReader pageReader, Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys,
+						 int sqlLimit, int sqlOffset, ConnectionProperties properties, CachedResultReader cachedResult,
+						 ExecutionResponse executionResponse, ExecutionResult firstResult, boolean isEmpty)
+			throws SQLException {
 		this.workspace = workspace;
 		this.gdAfm = afmService;
 		this.afm = afm;
 		this.columns = columns;
 		this.statement = statement;
-		this.sqlLimit = sqlLimit;
+		this.sqlLimit = getLimit(statement, sqlLimit);
 		this.sqlOffset = sqlOffset;
 		this.orderBys = orderBys;
 		this.computeColumnsStatementPositions(columns);
-		this.setFetchSize(1000);
-		this.fetchPage(0);
+		this.metaData = new AfmResultSetMetaData(columns);
+		Execution execution = this.getExecution();
+		this.resultCacheTtlMs = properties.getResultCacheTtlMs();
+		this.persistentResultCacheTtlMs = properties.getPersistentResultCacheTtlMs();
+		this.resultCacheMaxRows = properties.getResultCacheMaxRows();
+		this.resultCacheKey = !isEmpty && (this.resultCacheTtlMs > 0 || this.persistentResultCacheTtlMs > 0)
+				? this.createResultCacheKey(execution, properties) : null;
+		// the result of the already executed AFM isn't looked up again
+		if(cachedResult == null && executionResponse == null)
+			cachedResult = findCachedResult(this.resultCacheKey, properties);
+		if(cachedResult != null) {
+			this.dictionaries = cachedResult.getDictionaries();
+			this.pageReader = cachedResult;
+			this.executionResponse = null;
+			firstResult = null;
+		}
+		else {
+			this.dictionaries = new AttributeDictionary[this.attributeCount];
+			for(int i=0; i<this.dictionaries.length; i++) {
+				this.dictionaries[i] = new AttributeDictionary(properties.getAttributeDictionarySize());
+			}
+			this.pageReader = pageReader;
+			this.executionResponse = executionResponse != null || isEmpty ? executionResponse
+					: this.gdAfm.executeAfm(this.workspace, execution);
+			if(this.resultCacheKey != null)
+				this.resultCachePages = new TreeMap<>();
+		}
+		this.resultSetType = statement != null ? statement.getResultSetType() : TYPE;
+		this.pageCache = new ResultPageCache(this.resultSetType == TYPE_SCROLL_INSENSITIVE
+				? properties.getPageCacheSize() : 0, properties.getSpillHeapBudget(),
+				Paths.get(AfmDriver.GDJDBC_DIR, "spill"), this.dictionaries);
+		int statementFetchSize = statement != null ? statement.getFetchSize() : 0;
+		this.setFetchSize(statementFetchSize > 0 ? statementFetchSize : DEFAULT_FETCH_SIZE);
+		this.pageSizer = properties.isAdaptivePageSize()
+				? new AdaptivePageSizer(this.fetchSize, properties.getAdaptivePageMinRows(),
+						properties.getAdaptivePageMaxRows(), properties.getAdaptivePageTargetMs(),
+						properties.getAdaptivePageMaxBytes())
+				: null;
+		if(properties.isParallelFetch() && !isEmpty) {
+			// the parallel fetch keeps the whole window of the following pages in flight
+			this.parallelFetchExecutor = DriverExecutors.newBoundedPool(properties.getParallelFetchThreads(),
+					"gdjdbc-parallel-fetch");
+			this.prefetcher = new ResultPagePrefetcher(this::loadPage,
+					this.parallelFetchExecutor, properties.getParallelFetchWindow());
+			this.prefetchWatermark = 0;
+		}
+		else {
+			this.parallelFetchExecutor = null;
+			this.prefetcher = new ResultPagePrefetcher(this::loadPage,
+					DriverExecutors.background(), properties.getPrefetchDepth());
+			this.prefetchWatermark = properties.getPrefetchWatermark();
+		}
+		// the first page starts at the SQL OFFSET and doesn't transfer rows beyond the LIMIT
+		try {
+			this.page = firstResult != null
+					? ResultPageBuffer.decode(firstResult, this.metricCount, this.dictionaries)
+					: this.readPage(this.sqlOffset, Math.max(1, this.getPageSize(this.sqlOffset)));
+			// the first page response includes the AFM computation, only its size is sampled
+			if(this.pageSizer != null)
+				this.pageSizer.recordSize(this.page.getRowCount(), this.page.estimateHeapSize());
+		}
+		catch (SQLException e) {
+			this.close();
+			throw e;
+		}
+		this.rowCount = Math.max(0, Math.min(this.page.getTotalRows() - this.sqlOffset, this.sqlLimit));
+		this.pageCache.put(this.page);
+		this.collectForResultCache(this.page);
+	}
+
+	/**
+	 * Creates the result cache key from the canonical form of the AFM execution. The results depend
+	 * on the user's data permissions, the key is scoped by the server host and the login.
+	 * @param execution AFM execution
+	 * @param properties connection properties with the host and the login
+	 * @return the key or null if the execution can't be serialized
+	 */
+	private ResultCacheKey createResultCacheKey(Execution execution, ConnectionProperties properties) {
+		return createResultCacheKey(this.workspace, execution, this.sqlLimit, this.sqlOffset, properties);
 	}
 
-	private void fetchPage(int rowOffset) {
-		Execution e;
-		if (this.orderBys != null && this.orderBys.size() > 0) {
+	private static ResultCacheKey createResultCacheKey(Project workspace, Execution execution, int sqlLimit,
+													   int sqlOffset, ConnectionProperties properties) {
+		try {
+			return ResultCacheKey.of(properties.getHost(), properties.getLogin(),
+					workspace != null ? workspace.getUri() : null, execution, sqlLimit, sqlOffset);
+		} catch (JsonProcessingException e) {
+			LOGGER.warning(String.format("The result can't be cached: %s", e.getMessage()));
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the result of the query in the result cache and the persistent result cache, so the caller
+	 * can decide whether the AFM needs to be executed and pass the found result to the ResultSet
+	 * @param statement statement with the max rows
+	 * @param workspace GoodData workspace
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @param sqlLimit SQL LIMIT
+	 * @param sqlOffset SQL OFFSET
+	 * @param properties connection properties
+	 * @return cached result or null if the query isn't cached
+	 * @throws SQLException when the statement's max rows can't be read
+	 */
+	public static CachedResultReader findCachedResult(Statement statement, Project workspace, Afm afm,
+													  List<CatalogEntry> columns, List<SortItem> orderBys,
+													  int sqlLimit, int sqlOffset, ConnectionProperties properties)
+			throws SQLException {
+		if(properties.getResultCacheTtlMs() <= 0 && properties.getPersistentResultCacheTtlMs() <= 0)
+			return null;
+		ResultCacheKey key = createResultCacheKey(workspace, createExecution(afm, columns, orderBys),
+				getLimit(statement, sqlLimit), sqlOffset, properties);
+		return findCachedResult(key, properties);
+	}
+
+	private static CachedResultReader findCachedResult(ResultCacheKey key, ConnectionProperties properties) {
+		if(key == null)
+			return null;
+		if(properties.getResultCacheTtlMs() > 0) {
+			ResultCache.shared().ensureCapacity(properties.getResultCacheMaxEntries());
+			CachedResult cached = ResultCache.shared().get(key);
+			if(cached != null) {
+				LOGGER.info(String.format("Serving result key='%s' from the result cache", key.getHash()));
+				return cached;
+			}
+		}
+		if(properties.getPersistentResultCacheTtlMs() > 0) {
+			ResultDiskCache.Entry stored = ResultDiskCache.shared().get(key, properties.getAttributeDictionarySize());
+			if(stored != null) {
+				LOGGER.info(String.format("Serving result key='%s' from the persistent result cache", key.getHash()));
+				return stored;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Window of the first result page the ResultSet reads, the async execution polls it until the result
+	 * is computed and passes the ready result to the ResultSet
+	 * @param statement statement with the fetch size and the max rows
+	 * @param columns AFM columns
+	 * @param sqlLimit SQL LIMIT
+	 * @param sqlOffset SQL OFFSET
+	 * @param properties connection properties
+	 * @return first page window
+	 * @throws SQLException when the statement's fetch size or max rows can't be read
+	 */
+	public static ResultPage getFirstPage(Statement statement, List<CatalogEntry> columns, int sqlLimit,
+										  int sqlOffset, ConnectionProperties properties) throws SQLException {
+		int statementFetchSize = statement != null ? statement.getFetchSize() : 0;
+		int fetchRows = statementFetchSize > 0 ? statementFetchSize : DEFAULT_FETCH_SIZE;
+		if(properties.isAdaptivePageSize()) {
+			fetchRows = new AdaptivePageSizer(fetchRows, properties.getAdaptivePageMinRows(),
+					properties.getAdaptivePageMaxRows(), properties.getAdaptivePageTargetMs(),
+					properties.getAdaptivePageMaxBytes()).getPageSize();
+		}
+		long endRow = Math.min((long) sqlOffset + getLimit(statement, sqlLimit), Integer.MAX_VALUE);
+		int pageSize = (int) Math.max(1, Math.min(fetchRows, endRow - sqlOffset));
+		return new ResultPage(Arrays.asList(sqlOffset, 0), Arrays.asList(pageSize, columns.size()));
+	}
+
+	/**
+	 * SQL LIMIT capped by the statement's max rows
+	 */
+	private static int getLimit(Statement statement, int sqlLimit) throws SQLException {
+		int maxRows = statement != null ? statement.getMaxRows() : 0;
+		return maxRows > 0 ? Math.min(sqlLimit, maxRows) : sqlLimit;
+	}
+
+	/**
+	 * Collects the fetched page and puts the result to the result cache once all its pages are fetched
+	 * @param page fetched page
+	 */
+	private void collectForResultCache(ResultPageBuffer page) {
+		if(this.resultCachePages == null)
+			return;
+		int windowEnd = Math.min(page.getTotalRows(), this.getEndRow());
+		if(windowEnd - this.sqlOffset > this.resultCacheMaxRows) {
+			this.resultCachePages = null;
+			return;
+		}
+		this.resultCachePages.put(page.getRowOffset(), page);
+		int next = this.sqlOffset;
+		for(ResultPageBuffer p : this.resultCachePages.values()) {
+			if(p.getRowOffset() > next)
+				break;
+			next = Math.max(next, p.getMaxRow());
+		}
+		if(next >= windowEnd) {
+			final TreeMap<Integer, ResultPageBuffer> pages = this.resultCachePages;
+			final AttributeDictionary[] pageDictionaries = this.dictionaries;
+			final ResultCacheKey key = this.resultCacheKey;
+			long now = System.currentTimeMillis();
+			if(this.resultCacheTtlMs > 0) {
+				ResultCache.shared().put(key, new CachedResult(pages, pageDictionaries, now + this.resultCacheTtlMs));
+			}
+			if(this.persistentResultCacheTtlMs > 0) {
+				// pages and dictionaries are safe to read concurrently, the file is written in background
+				final long expiresAt = now + this.persistentResultCacheTtlMs;
+				DriverExecutors.background().execute(() ->
+						ResultDiskCache.shared().put(key, pages, pageDictionaries, expiresAt));
+			}
+			this.resultCachePages = null;
+		}
+	}
+
+	/**
+	 * Builds the AFM execution definition including the ORDER BY result spec
+	 * @return AFM execution
+	 */
+	private Execution getExecution() {
+		return createExecution(this.afm, this.columns, this.orderBys);
+	}
+
+	/**
+	 * Builds the AFM execution definition including the ORDER BY result spec
+	 * @param afm AFM execution definition
+	 * @param columns AFM columns
+	 * @param orderBys SQL ORDER BY
+	 * @return AFM execution
+	 */
+	public static Execution createExecution(Afm afm, List<CatalogEntry> columns, List<SortItem> orderBys) {
+		if (orderBys != null && orderBys.size() > 0) {
 			List<Dimension> dimensions = new ArrayList<>();
-			dimensions.add(new Dimension(this.columns.stream()
+			dimensions.add(new Dimension(columns.stream()
 					.filter(i->i.getType().equals("attribute"))
 					.map(i->i.getDefaultDisplayForm().getUri()).collect(Collectors.toList())));
 			dimensions.add(new Dimension("measureGroup"));
-			e = new Execution(afm, new ResultSpec(dimensions,this.orderBys));
+			return new Execution(afm, new ResultSpec(dimensions, orderBys));
 		}
 		else {
-			e = new Execution(afm);
+			return new Execution(afm);
+		}
+	}
+
+	/**
+	 * Reads and decodes result page from the computed AFM execution, records its latency for the page size
+	 * @param rowOffset first row of the page
+	 * @param limit max number of rows in the page
+	 * @return decoded page
+	 * @throws SQLException when the page can't be decoded
+	 */
+	private ResultPageBuffer loadPage(int rowOffset, int limit) throws SQLException {
+		long start = System.currentTimeMillis();
+		ResultPageBuffer buffer = this.readPage(rowOffset, limit);
+		if(this.pageSizer != null) {
+			this.pageSizer.record(buffer.getRowCount(), System.currentTimeMillis() - start,
+					buffer.estimateHeapSize());
 		}
-		ExecutionResponse rs = this.gdAfm.executeAfm(this.workspace, e);
+		return buffer;
+	}
+
+	/**
+	 * Reads and decodes result page from the existing AFM execution
+	 * @param rowOffset first row of the page
+	 * @param limit max number of rows in the page
+	 * @return decoded page
+	 * @throws SQLException when the page can't be decoded
+	 */
+	private ResultPageBuffer readPage(int rowOffset, int limit) throws SQLException {
 		List<Integer> offsets = Arrays.asList(rowOffset, 0);
-		List<Integer> limits = Arrays.asList(this.fetchSize, this.columns.size());
-		ResultPage resultPage = new ResultPage(offsets, limits);
-		FutureResult<ExecutionResult> fr = this.gdAfm.getResult(rs, resultPage);
-		this.afmExecutionResult = fr.get();
-		this.paging = this.afmExecutionResult.getPaging();
-		this.pageOffset = rowOffset;
+		List<Integer> limits = Arrays.asList(limit, this.columns.size());
+		return this.pageReader.read(this.executionResponse, new ResultPage(offsets, limits), this.metricCount,
+				this.dictionaries);
 	}
 
 	public int getRowCount() {
-		return Math.min(this.paging.getTotal().get(0) - this.sqlOffset, this.sqlLimit);
+		return this.rowCount;
+	}
+
+	/**
+	 * Row after the last row of the SQL LIMIT window
+	 * @return row index
+	 */
+	private int getEndRow() {
+		return (int) Math.min((long) this.sqlOffset + this.sqlLimit, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Size of the result page starting at the row, the page doesn't reach beyond the SQL LIMIT
+	 * @param rowOffset first row of the page
+	 * @return number of rows to request
+	 */
+	private int getPageSize(int rowOffset) {
+		return Math.max(0, Math.min(this.getFetchRows(), this.getEndRow() - rowOffset));
+	}
+
+	/**
+	 * Rows per page - either adaptive or the fetch size
+	 * @return number of rows
+	 */
+	private int getFetchRows() {
+		return this.pageSizer != null ? this.pageSizer.getPageSize() : this.fetchSize;
 	}
 
 	public int getMaxFetchedRow() {
-		return this.paging.getOffset().get(0) + this.paging.getCount().get(0);
+		return this.page.getMaxRow();
 	}
 
-	private void ensurePageFetched(int rowIndex) {
-		if(rowIndex < this.getRowCount() && (rowIndex >= this.getMaxFetchedRow()
-				|| rowIndex < this.pageOffset) ) {
-			fetchPage(rowIndex);
+	private void ensurePageFetched(int rowIndex) throws SQLException {
+		if(rowIndex < this.page.getTotalRows() && !this.page.contains(rowIndex)) {
+			ResultPageBuffer cached = this.pageCache.get(rowIndex);
+			if(cached != null) {
+				this.page = cached;
+			}
+			else if(this.followingPage != null && this.followingPage.contains(rowIndex)) {
+				this.page = this.followingPage;
+			}
+			else {
+				try {
+					ResultPageBuffer prefetched = this.prefetcher.take(rowIndex);
+					this.page = prefetched != null ? prefetched
+							: this.loadPage(rowIndex, this.getPageSize(rowIndex));
+				}
+				catch (SQLException e) {
+					// the cancelled or timed out ResultSet releases its pages and workers
+					if(QueryControl.isAborted(e))
+						this.close();
+					throw e;
+				}
+				this.pageCache.put(this.page);
+				this.collectForResultCache(this.page);
+			}
+		}
+		this.prefetchFollowingPages(rowIndex);
+	}
+
+	/**
+	 * Requests the following pages in background once the cursor passes the watermark of the current page
+	 * @param rowIndex current row index
+	 */
+	private void prefetchFollowingPages(int rowIndex) {
+		// the rows of the page already past the watermark skip the page cache lookup
+		if(this.page == this.prefetchedPage)
+			return;
+		if(rowIndex - this.page.getRowOffset() >= this.page.getRowCount() * this.prefetchWatermark) {
+			this.prefetchedPage = this.page;
+			if(!this.pageCache.contains(this.page.getMaxRow())) {
+				this.prefetcher.prefetch(this.page.getMaxRow(), this.getFetchRows(),
+						Math.min(this.page.getTotalRows(), this.getEndRow()));
+			}
 		}
 	}
 
@@ -127,16 +596,24 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 	 * */
 	private void computeColumnsStatementPositions(List<CatalogEntry> columns) {
 		this.columnStatementPosition =  new int[columns.size()];
+		this.isMetricColumn = new boolean[columns.size()];
+		this.columnSqlTypes = new int[columns.size()];
 		int metricPosition = 0;
 		int attributePosition = 0;
 		for(int i=0; i<this.columnStatementPosition.length; i++) {
-			if(columns.get(i).getType().equals("metric")) {
+			CatalogEntry column = columns.get(i);
+			if(column.getType().equals("metric")) {
+				this.isMetricColumn[i] = true;
 				this.columnStatementPosition[i] = metricPosition++;
 			}
 			else {
 				this.columnStatementPosition[i] = attributePosition++;
 			}
+			this.columnSqlTypes[i] = SQLParser.convertSQLDataTypeNameToJavaSQLType(column.getDataType());
+			this.columnIndexes.putIfAbsent(column.getTitle(), i);
 		}
+		this.metricCount = metricPosition;
+		this.attributeCount = attributePosition;
 	}
 
 	/**
@@ -144,48 +621,410 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 	 */
 	@Override
 	public java.sql.ResultSetMetaData getMetaData() {
-		return new AfmResultSetMetaData(this.columns);
+		return this.metaData;
 	}
 
 	/**
-	 * Get textual value - extracts text value from AFM execution result
+	 * Positions the current page to the cursor row
 	 * @param columnIndex 1 based index
-	 * @return textual value
+	 * @return row index within the current page
 	 * @throws SQLException in case of issues
 	 */
-	public String getTextValue(int columnIndex) throws SQLException {
+	private int getPageRowIndex(int columnIndex) throws SQLException {
+		if(this.isClosed)
+			throw new SQLException("ResultSet is closed.");
 		if(this.currentRowNum < 0 || this.currentRowNum >= this.getRowCount())
 			throw new SQLException("Cursor is out of range.");
-		int realIndex = columnIndex - 1;
-		if( realIndex >= this.columns.size() )
-			throw new SQLException("Column index too high.");
+		this.checkColumnIndex(columnIndex);
 
 		int rowNumWithOffset = this.currentRowNum + this.sqlOffset;
 		this.ensurePageFetched(rowNumWithOffset);
-		// index within the current page
-		int actualPageRowIndex = rowNumWithOffset - this.pageOffset;
-
-		CatalogEntry column = this.columns.get(realIndex);
-		if(column.getType().equals("metric")) {
-			Data data = this.afmExecutionResult.getData().get(actualPageRowIndex);
-			if(data instanceof DataList) {
-				DataList row = (DataList)data;
-				return row.get(this.columnStatementPosition[realIndex]).textValue();
+		return rowNumWithOffset - this.page.getRowOffset();
+	}
+
+	/**
+	 * Get textual value - extracts text value from the decoded AFM result page
+	 * @param columnIndex 1 based index
+	 * @return textual value
+	 * @throws SQLException in case of issues
+	 */
+	public String getTextValue(int columnIndex) throws SQLException {
+		int row = this.getPageRowIndex(columnIndex);
+		int realIndex = columnIndex - 1;
+		String value;
+		if(this.isMetricColumn[realIndex]) {
+			value = this.page.getMetric(this.columnStatementPosition[realIndex]).getText(row);
+		}
+		else {
+			value = this.page.getAttribute(this.columnStatementPosition[realIndex]).getValue(row);
+		}
+		this.wasNull = value == null;
+		return value;
+	}
+
+	/**
+	 * Reads metric value directly from the decoded page
+	 * @param columnIndex 1 based index of a metric column
+	 * @return metric value (0 for NULL)
+	 * @throws SQLException in case of issues
+	 */
+	private double getMetricValue(int columnIndex) throws SQLException {
+		int row = this.getPageRowIndex(columnIndex);
+		ResultPageBuffer.MetricColumn metric = this.getMetricColumn(columnIndex);
+		this.wasNull = metric.isNull(row);
+		return metric.getValue(row);
+	}
+
+	/**
+	 * Reads the metric column of the current row from the decoded page
+	 * @param columnIndex 1 based index of a metric column
+	 * @return metric column, its current row is the getPageRowIndex
+	 * @throws SQLException in case of issues
+	 */
+	private ResultPageBuffer.MetricColumn getMetricColumn(int columnIndex) throws SQLException {
+		return this.page.getMetric(this.columnStatementPosition[columnIndex - 1]);
+	}
+
+	/**
+	 * Converts the metric value as the getObject does without parsing any text
+	 * @param metric metric column
+	 * @param row row index within the page
+	 * @param column 0 based column index
+	 * @return value or null for NULL
+	 * @throws SQLException when the value can't be converted
+	 */
+	private Object getMetricObject(ResultPageBuffer.MetricColumn metric, int row, int column) throws SQLException {
+		if(metric.isNull(row))
+			return null;
+		switch (this.columnSqlTypes[column]) {
+			case Types.DOUBLE:
+				return metric.getValue(row);
+			case Types.FLOAT:
+				return (float) metric.getValue(row);
+			case Types.INTEGER:
+				return (int) metric.getValue(row);
+			case Types.NUMERIC:
+			case Types.DECIMAL:
+				CatalogEntry entry = this.columns.get(column);
+				return metric.getBigDecimal(row).round(new MathContext(entry.getPrecision() + entry.getSize()));
+			case Types.VARCHAR:
+			case Types.CHAR:
+				return metric.getText(row);
+		}
+		return this.parseObject(metric.getText(row), column);
+	}
+
+	boolean isMetric(int columnIndex) {
+		return columnIndex >= 1 && columnIndex <= this.isMetricColumn.length && this.isMetricColumn[columnIndex - 1];
+	}
+
+	/**
+	 * Position of the column among the metric or attribute columns of the page
+	 * @param columnIndex 1 based index
+	 * @return metric or attribute position
+	 */
+	int getColumnPagePosition(int columnIndex) {
+		return this.columnStatementPosition[columnIndex - 1];
+	}
+
+	CatalogEntry getColumn(int columnIndex) {
+		return this.columns.get(columnIndex - 1);
+	}
+
+	int getSqlOffset() {
+		return this.sqlOffset;
+	}
+
+	/**
+	 * Moves the cursor to the row and fetches its page
+	 * @param row zero based row index
+	 * @return page containing the row
+	 * @throws SQLException when the page can't be fetched
+	 */
+	ResultPageBuffer getPageAt(int row) throws SQLException {
+		if(this.isClosed)
+			throw new SQLException("ResultSet is closed.");
+		this.currentRowNum = row;
+		this.ensurePageFetched(row + this.sqlOffset);
+		return this.page;
+	}
+
+	/**
+	 * Exports the remaining rows to the file, the cursor ends after the last row
+	 * @param file target file, it is overwritten
+	 * @param format file format
+	 * @return export throughput
+	 * @throws SQLException when the pages can't be fetched or the file can't be written
+	 */
+	public ResultExporter.Stats exportTo(Path file, ResultExporter.Format format) throws SQLException {
+		ResultExporter.Stats stats;
+		if(format == ResultExporter.Format.ARROW) {
+			try {
+				stats = ArrowResultReader.export(this, file);
+			}
+			catch (NoClassDefFoundError e) {
+				throw new SQLException("The Arrow export requires org.apache.arrow:arrow-vector on the classpath.", e);
+			}
+		}
+		else {
+			stats = new ResultExporter(this, format).export(file, this.currentRowNum + 1);
+		}
+		this.currentRowNum = this.getRowCount();
+		return stats;
+	}
+
+	/**
+	 * Copies the rows following the cursor to the caller's arrays straight from the decoded pages,
+	 * without the per cell cursor, page and column checks. The values are the same as the getObject values.
+	 * The cursor ends on the last copied row, or after the last row when no row is left.
+	 * @param maxRows max number of rows to copy
+	 * @param out row arrays, the missing or shorter row arrays are allocated
+	 * @return number of copied rows, 0 after the last row
+	 * @throws SQLException when the pages can't be fetched or the values can't be converted
+	 */
+	public int fetchBatch(int maxRows, Object[][] out) throws SQLException {
+		int columnCount = this.columns.size();
+		int rows = this.copyFollowingRows(Math.min(maxRows, out.length), (page, pageRow, index, n) -> {
+			for(int r = 0; r < n; r++) {
+				if(out[index + r] == null || out[index + r].length < columnCount)
+					out[index + r] = new Object[columnCount];
+			}
+			for(int i = 0; i < columnCount; i++) {
+				this.copyObjects(page, pageRow, out, index, n, i);
+			}
+		});
+		if(rows > 0)
+			this.currentRowNum += rows;
+		else if(maxRows > 0 && out.length > 0)
+			this.currentRowNum = this.getRowCount();
+		return rows;
+	}
+
+	/**
+	 * Copies the column values of the rows following the cursor, the cursor doesn't move,
+	 * so the columns of the same rows can be copied one by one before ResultSet.relative(rows)
+	 * @param columnIndex 1 based index
+	 * @param out target array, NULL values are copied as NaN
+	 * @return number of copied rows, 0 after the last row
+	 * @throws SQLException when the pages can't be fetched or the values aren't numbers
+	 */
+	public int fetchDoubles(int columnIndex, double[] out) throws SQLException {
+		this.checkColumnIndex(columnIndex);
+		int position = this.columnStatementPosition[columnIndex - 1];
+		if(this.isMetricColumn[columnIndex - 1]) {
+			return this.copyFollowingRows(out.length,
+					(page, pageRow, index, n) -> page.getMetric(position).copyValues(pageRow, out, index, n));
+		}
+		return this.copyFollowingRows(out.length, (page, pageRow, index, n) -> {
+			ResultPageBuffer.AttributeColumn attribute = page.getAttribute(position);
+			for(int r = 0; r < n; r++) {
+				String value = attribute.getValue(pageRow + r);
+				out[index + r] = value == null ? Double.NaN : DataTypeParser.parseDouble(value);
+			}
+		});
+	}
+
+	/**
+	 * Copies the textual column values of the rows following the cursor, the cursor doesn't move
+	 * @param columnIndex 1 based index
+	 * @param out target array
+	 * @return number of copied rows, 0 after the last row
+	 * @throws SQLException when the pages can't be fetched
+	 */
+	public int fetchStrings(int columnIndex, String[] out) throws SQLException {
+		this.checkColumnIndex(columnIndex);
+		int position = this.columnStatementPosition[columnIndex - 1];
+		boolean isMetric = this.isMetricColumn[columnIndex - 1];
+		return this.copyFollowingRows(out.length, (page, pageRow, index, n) -> {
+			for(int r = 0; r < n; r++) {
+				out[index + r] = isMetric ? page.getMetric(position).getText(pageRow + r)
+						: page.getAttribute(position).getValue(pageRow + r);
+			}
+		});
+	}
+
+	/**
+	 * Copies a run of rows of one page
+	 */
+	private interface PageRowsCopier {
+		void copy(ResultPageBuffer page, int pageRow, int index, int n) throws SQLException;
+	}
+
+	/**
+	 * Walks the pages of the rows following the cursor, the cursor doesn't move
+	 * @param maxRows max number of rows
+	 * @param copier copies the rows of each page
+	 * @return number of rows
+	 * @throws SQLException when the pages can't be fetched
+	 */
+	private int copyFollowingRows(int maxRows, PageRowsCopier copier) throws SQLException {
+		if(this.isClosed)
+			throw new SQLException("ResultSet is closed.");
+		int first = Math.max(0, this.currentRowNum + 1);
+		int end = (int) Math.min(this.getRowCount(), (long) first + Math.max(0, maxRows));
+		int row = first;
+		ResultPageBuffer cursorPage = this.page;
+		try {
+			while(row < end) {
+				int rowWithOffset = row + this.sqlOffset;
+				this.ensurePageFetched(rowWithOffset);
+				int pageRow = rowWithOffset - this.page.getRowOffset();
+				int n = Math.min(end - row, this.page.getRowCount() - pageRow);
+				if(n <= 0)
+					break;
+				copier.copy(this.page, pageRow, row - first, n);
+				row += n;
+			}
+		}
+		finally {
+			// the cursor keeps its page, the last fetched page serves the next copies and the moved cursor
+			if(this.page != cursorPage) {
+				this.followingPage = this.page;
+				this.page = cursorPage;
 			}
-			else if(data instanceof DataValue) {
-				DataValue value = (DataValue)data;
-				return value.textValue();
-			} else {
-				throw new SQLException(String.format("ResultSetTable.getTextValue invalid data instance '%s'",
-						data.getClass().getName()));
+		}
+		return row - first;
+	}
+
+	/**
+	 * Copies the column values as the getObject does, the conversion is resolved once per column
+	 */
+	private void copyObjects(ResultPageBuffer page, int pageRow, Object[][] out, int index, int n, int column)
+			throws SQLException {
+		int sqlType = this.columnSqlTypes[column];
+		int position = this.columnStatementPosition[column];
+		if(this.isMetricColumn[column]) {
+			ResultPageBuffer.MetricColumn metric = page.getMetric(position);
+			for(int r = 0; r < n; r++) {
+				out[index + r][column] = this.getMetricObject(metric, pageRow + r, column);
 			}
 		}
 		else {
-			return this.afmExecutionResult.getHeaderItems().get(0).get(this.columnStatementPosition[realIndex])
-					.get(actualPageRowIndex).getName();
+			ResultPageBuffer.AttributeColumn attribute = page.getAttribute(position);
+			boolean isText = sqlType == Types.VARCHAR || sqlType == Types.CHAR;
+			for(int r = 0; r < n; r++) {
+				String value = attribute.getValue(pageRow + r);
+				out[index + r][column] = isText ? value : this.parseObject(value, column);
+			}
 		}
 	}
 
+	private Object parseObject(String textValue, int column) throws SQLException {
+		CatalogEntry entry = this.columns.get(column);
+		return DataTypeParser.parseObject(textValue, this.columnSqlTypes[column],
+				entry.getPrecision() + entry.getSize());
+	}
+
+	private void checkColumnIndex(int columnIndex) throws SQLException {
+		if( columnIndex < 1 || columnIndex > this.columns.size() )
+			throw new SQLException("Column index out of range.");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean wasNull() {
+		return this.wasNull;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getString(int columnIndex) throws SQLException {
+		return this.getTextValue(columnIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDouble(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex))
+			return this.getMetricValue(columnIndex);
+		return DataTypeParser.parseDouble(this.getTextValue(columnIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float getFloat(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex))
+			return (float) this.getMetricValue(columnIndex);
+		return DataTypeParser.parseFloat(this.getTextValue(columnIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLong(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex)) {
+			// the exact value, the longs over 2^53 don't fit to the double
+			int row = this.getPageRowIndex(columnIndex);
+			ResultPageBuffer.MetricColumn metric = this.getMetricColumn(columnIndex);
+			this.wasNull = metric.isNull(row);
+			return metric.getLong(row);
+		}
+		return DataTypeParser.parseLong(this.getTextValue(columnIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getInt(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex))
+			return (int) this.getMetricValue(columnIndex);
+		return DataTypeParser.parseInt(this.getTextValue(columnIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public short getShort(int columnIndex) throws SQLException {
+		return (short) this.getInt(columnIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte getByte(int columnIndex) throws SQLException {
+		return (byte) this.getInt(columnIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex)) {
+			int row = this.getPageRowIndex(columnIndex);
+			ResultPageBuffer.MetricColumn metric = this.getMetricColumn(columnIndex);
+			this.wasNull = metric.isNull(row);
+			return metric.getBigDecimal(row);
+		}
+		return DataTypeParser.parseBigDecimal(this.getTextValue(columnIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getObject(int columnIndex) throws SQLException {
+		if(this.isMetric(columnIndex)) {
+			int row = this.getPageRowIndex(columnIndex);
+			ResultPageBuffer.MetricColumn metric = this.getMetricColumn(columnIndex);
+			this.wasNull = metric.isNull(row);
+			return this.getMetricObject(metric, row, columnIndex - 1);
+		}
+		return this.parseObject(this.getTextValue(columnIndex), columnIndex - 1);
+	}
+
 	/**
 	 * Finds 1-based column index by column name
 	 * @param columnLabel column name
@@ -194,13 +1033,36 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 	 */
 	@Override
 	public int findColumn(String columnLabel) throws SQLException {
-		int index = this.columns.stream().map(CatalogEntry::getTitle).collect(Collectors.toList()).indexOf(columnLabel);
-		if(index >= 0)
+		Integer index = this.columnIndexes.get(columnLabel);
+		if(index != null)
 			return index + 1;
 		else
 			throw new SQLException(String.format("Column '%s' doesn't exist.", columnLabel));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		this.prefetcher.cancel();
+		this.pageCache.close();
+		this.resultCachePages = null;
+		this.followingPage = null;
+		if(this.parallelFetchExecutor != null) {
+			this.parallelFetchExecutor.shutdownNow();
+		}
+		this.isClosed = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isClosed() {
+		return this.isClosed;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -249,16 +1111,42 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 		return this.currentRowNum + 1;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getType() {
+		return this.resultSetType;
+	}
+
+	/**
+	 * Publisher of the remaining rows with the backpressure. Pages are fetched as the subscriber requests
+	 * the rows, the rows are read on the driver background threads.
+	 * @return row publisher
+	 */
+	public synchronized ResultRowPublisher getRowPublisher() {
+		if(this.rowPublisher == null)
+			this.rowPublisher = new ResultRowPublisher(this, DriverExecutors.background());
+		return this.rowPublisher;
+	}
+
+	/**
+	 * LRU cache of the result pages with its hit and miss counters
+	 * @return page cache
+	 */
+	public ResultPageCache getPageCache() {
+		return this.pageCache;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public boolean absolute(int row) {
-		if(row > 0 && row <= this.getRowCount()) {
-			this.currentRowNum =  row - 1;
-			return true;
-		}
-		return false;
+		int rowCount = this.getRowCount();
+		// negative row counts from the end
+		long target = row < 0 ? (long) rowCount + row : (long) row - 1;
+		return this.moveTo(target, rowCount);
 	}
 
 	/**
@@ -266,7 +1154,48 @@ public class AfmResultSet extends AbstractResultSet implements ResultSet {
 	 */
 	@Override
 	public boolean relative(int rowsIncrement) {
-		return absolute(this.currentRowNum + 1 + rowsIncrement);
+		return this.moveTo((long) this.currentRowNum + rowsIncrement, this.getRowCount());
+	}
+
+	/**
+	 * Moves the cursor to the zero based row, positions it before the first or after the last row
+	 * when the target is out of range
+	 * @param target zero based row index
+	 * @param rowCount number of rows
+	 * @return true if the cursor is on a row
+	 */
+	private boolean moveTo(long target, int rowCount) {
+		if(target < 0) {
+			this.currentRowNum = -1;
+			return false;
+		}
+		if(target >= rowCount) {
+			this.currentRowNum = rowCount;
+			return false;
+		}
+		this.currentRowNum = (int) target;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if(iface.isInstance(this))
+			return iface.cast(this);
+		// the Arrow record batches of the remaining rows, one batch per result page
+		if(ARROW_READER.equals(iface.getName()))
+			return iface.cast(ArrowResultReader.create(this));
+		throw new SQLException(String.format("AfmResultSet doesn't wrap '%s'.", iface.getName()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isWrapperFor(Class<?> iface) {
+		return iface.isInstance(this) || ARROW_READER.equals(iface.getName());
 	}
 
 }
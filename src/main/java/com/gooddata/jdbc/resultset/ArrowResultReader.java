@@ -0,0 +1,292 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.catalog.CatalogEntry;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reads the AfmResultSet as Apache Arrow record batches, one batch per decoded result page.
+ * DECIMAL metrics map to Decimal vectors, other metrics to Float8 vectors and attributes to dictionary
+ * encoded Utf8 vectors that reuse the codes of the page attribute dictionaries.
+ * Arrow is an optional dependency, this class is loaded only when the Arrow export is used.
+ */
+public class ArrowResultReader extends ArrowReader {
+
+    private final static Logger LOGGER = Logger.getLogger(ArrowResultReader.class.getName());
+
+    // max precision of the 128 bit Arrow decimal
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private final AfmResultSet resultSet;
+    // allocator created by the reader and closed with it (null when the caller owns the allocator)
+    private final BufferAllocator ownAllocator;
+    private final int columnCount;
+    private final boolean[] isMetric;
+    private final int[] positions;
+    private final int[] scales;
+    // number of the dictionary values already copied to the Arrow dictionary vectors, per column
+    private final int[] dictionaryValueCounts;
+    // values beyond the full page dictionary, appended after its values, per column
+    private final List<Map<String, Integer>> overflowCodes = new ArrayList<>();
+    private final Schema schema;
+    private int row;
+    private long bytesRead = 0;
+
+    /**
+     * Constructor
+     * @param resultSet ResultSet, the reader moves its cursor from the current row to the end
+     * @param allocator Arrow memory allocator
+     * @throws SQLException when the ResultSet metadata can't be read
+     */
+    public ArrowResultReader(AfmResultSet resultSet, BufferAllocator allocator) throws SQLException {
+        this(resultSet, allocator, null);
+    }
+
+    private ArrowResultReader(AfmResultSet resultSet, BufferAllocator allocator, BufferAllocator ownAllocator)
+            throws SQLException {
+        super(allocator);
+        this.resultSet = resultSet;
+        this.ownAllocator = ownAllocator;
+        java.sql.ResultSetMetaData metaData = resultSet.getMetaData();
+        this.columnCount = metaData.getColumnCount();
+        this.isMetric = new boolean[this.columnCount];
+        this.positions = new int[this.columnCount];
+        this.scales = new int[this.columnCount];
+        this.dictionaryValueCounts = new int[this.columnCount];
+        List<Field> fields = new ArrayList<>();
+        for (int i = 0; i < this.columnCount; i++) {
+            String name = metaData.getColumnName(i + 1);
+            this.isMetric[i] = resultSet.isMetric(i + 1);
+            this.positions[i] = resultSet.getColumnPagePosition(i + 1);
+            this.overflowCodes.add(new HashMap<>());
+            this.scales[i] = -1;
+            if (!this.isMetric[i]) {
+                fields.add(new Field(name, new FieldType(true, ArrowType.Utf8.INSTANCE,
+                        new DictionaryEncoding(i, false, new ArrowType.Int(32, true))), null));
+            } else if (metaData.getColumnType(i + 1) == Types.DECIMAL) {
+                // DECIMAL(13,2) is parsed to the size 13 and the precision 2 (digits after the decimal point),
+                // the declared size isn't enforced by the server, so the vector has the max precision
+                CatalogEntry column = resultSet.getColumn(i + 1);
+                this.scales[i] = Math.max(0, Math.min(MAX_DECIMAL_PRECISION, column.getPrecision()));
+                fields.add(new Field(name, FieldType.nullable(
+                        new ArrowType.Decimal(MAX_DECIMAL_PRECISION, this.scales[i], 128)), null));
+            } else {
+                fields.add(new Field(name, FieldType.nullable(
+                        new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null));
+            }
+        }
+        this.schema = new Schema(fields);
+        this.row = Math.max(0, resultSet.getRow());
+    }
+
+    /**
+     * Creates the reader with its own allocator, used by AfmResultSet.unwrap
+     * @param resultSet ResultSet
+     * @return the reader
+     * @throws SQLException when the ResultSet metadata can't be read
+     */
+    static Object create(AfmResultSet resultSet) throws SQLException {
+        BufferAllocator allocator = new RootAllocator();
+        try {
+            return new ArrowResultReader(resultSet, allocator, allocator);
+        } catch (SQLException | RuntimeException e) {
+            allocator.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the remaining rows to the file in the Arrow IPC stream format. The stream format carries
+     * the attribute dictionaries that grow from batch to batch.
+     * @param resultSet ResultSet
+     * @param file target file, it is overwritten
+     * @return export throughput
+     * @throws SQLException when the result can't be fetched or written
+     */
+    static ResultExporter.Stats export(AfmResultSet resultSet, Path file) throws SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (ArrowResultReader reader = (ArrowResultReader) create(resultSet);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ArrowStreamWriter writer = new ArrowStreamWriter(reader.getVectorSchemaRoot(), reader, channel)) {
+            writer.start();
+            while (reader.loadNextBatch()) {
+                writer.writeBatch();
+                rows += reader.getVectorSchemaRoot().getRowCount();
+            }
+            writer.end();
+            ResultExporter.Stats stats = new ResultExporter.Stats(rows, writer.bytesWritten(),
+                    (System.nanoTime() - start) / 1000000);
+            LOGGER.info(String.format("Exported to '%s' %s", file, stats));
+            return stats;
+        } catch (IOException e) {
+            throw new SQLException(String.format("Export to the file '%s' failed.", file), e);
+        }
+    }
+
+    /**
+     * Loads the rest of the current result page as the next record batch
+     * @return false after the last row
+     * @throws IOException when the page can't be fetched
+     */
+    @Override
+    public boolean loadNextBatch() throws IOException {
+        VectorSchemaRoot root = this.getVectorSchemaRoot();
+        int rowCount = this.resultSet.getRowCount();
+        if (this.row >= rowCount) {
+            root.setRowCount(0);
+            return false;
+        }
+        ResultPageBuffer page;
+        try {
+            page = this.resultSet.getPageAt(this.row);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        int offset = this.resultSet.getSqlOffset();
+        int first = this.row + offset - page.getRowOffset();
+        int last = Math.min(page.getRowCount(), rowCount + offset - page.getRowOffset());
+        if (last <= first) {
+            root.setRowCount(0);
+            return false;
+        }
+        int n = last - first;
+        for (int i = 0; i < this.columnCount; i++) {
+            FieldVector vector = root.getVector(i);
+            if (this.isMetric[i])
+                this.loadMetric(vector, page.getMetric(this.positions[i]), first, n, i);
+            else
+                this.loadAttribute((IntVector) vector, page.getAttribute(this.positions[i]), first, n, i);
+        }
+        root.setRowCount(n);
+        this.bytesRead += page.estimateHeapSize() * n / Math.max(1, page.getRowCount());
+        this.row += n;
+        return true;
+    }
+
+    private void loadMetric(FieldVector vector, ResultPageBuffer.MetricColumn metric, int first, int n,
+                            int column) throws IOException {
+        if (this.scales[column] < 0) {
+            Float8Vector v = (Float8Vector) vector;
+            v.allocateNew(n);
+            for (int r = 0; r < n; r++) {
+                if (metric.isNull(first + r))
+                    v.setNull(r);
+                else
+                    v.set(r, metric.getValue(first + r));
+            }
+        } else {
+            DecimalVector v = (DecimalVector) vector;
+            v.allocateNew(n);
+            for (int r = 0; r < n; r++) {
+                if (metric.isNull(first + r)) {
+                    v.setNull(r);
+                    continue;
+                }
+                try {
+                    v.set(r, metric.getBigDecimal(first + r).setScale(this.scales[column], RoundingMode.HALF_UP));
+                } catch (SQLException | UnsupportedOperationException e) {
+                    throw new IOException(String.format("Metric value '%s' doesn't fit the DECIMAL(%d,%d).",
+                            metric.getText(first + r), v.getPrecision(), v.getScale()), e);
+                }
+            }
+        }
+        vector.setValueCount(n);
+    }
+
+    private void loadAttribute(IntVector indices, ResultPageBuffer.AttributeColumn attribute, int first, int n,
+                               int column) throws IOException {
+        VarCharVector values = (VarCharVector) this.lookup(column).getVector();
+        AttributeDictionary dictionary = attribute.getDictionary();
+        int size = dictionary.size();
+        Map<String, Integer> overflow = this.overflowCodes.get(column);
+        // only the values added to the page dictionary since the previous batch are copied
+        for (int code = this.dictionaryValueCounts[column]; code < size; code++) {
+            String value = dictionary.decode(code);
+            if (value == null)
+                values.setNull(code);
+            else
+                values.setSafe(code, value.getBytes(StandardCharsets.UTF_8));
+        }
+        this.dictionaryValueCounts[column] = size;
+        indices.allocateNew(n);
+        for (int r = 0; r < n; r++) {
+            int code = attribute.getCode(first + r);
+            String value;
+            if (code == AttributeDictionary.NOT_ENCODED) {
+                // the full page dictionary doesn't grow anymore, the overflow values follow its values
+                value = attribute.getValue(first + r);
+                Integer overflowCode = overflow.get(value);
+                if (overflowCode == null && value != null) {
+                    overflowCode = size + overflow.size();
+                    overflow.put(value, overflowCode);
+                    values.setSafe(overflowCode, value.getBytes(StandardCharsets.UTF_8));
+                }
+                code = overflowCode != null ? overflowCode : -1;
+            } else {
+                value = dictionary.decode(code);
+            }
+            if (value == null)
+                indices.setNull(r);
+            else
+                indices.set(r, code);
+        }
+        indices.setValueCount(n);
+        values.setValueCount(size + overflow.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long bytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * Releases the allocator created by the reader, the ResultSet stays open
+     */
+    @Override
+    protected void closeReadSource() {
+        if (this.ownAllocator != null)
+            this.ownAllocator.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Schema readSchema() {
+        return this.schema;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.gooddata.jdbc.resultset;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of the attribute values shared by all pages of one ResultSet column. Keeps one canonical
+ * String instance per distinct value, so repeating values of low cardinality attributes
+ * don't allocate new Strings on every page.
+ * Pages are encoded on the background threads and handed to the cursor through a Future,
+ * which makes the encoded values visible to the cursor thread.
+ */
+public class AttributeDictionary {
+
+    public static final int NOT_ENCODED = -1;
+
+    private final int maxSize;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[64];
+    private int size = 0;
+
+    /**
+     * Constructor
+     * @param maxSize max number of distinct values, values beyond the limit aren't encoded
+     */
+    public AttributeDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Encodes the value
+     * @param value attribute value
+     * @return the value code or NOT_ENCODED when the dictionary is full
+     */
+    public synchronized int encode(String value) {
+        Integer code = this.codes.get(value);
+        if (code != null)
+            return code;
+        if (this.size >= this.maxSize)
+            return NOT_ENCODED;
+        String[] v = this.values;
+        if (this.size == v.length) {
+            v = Arrays.copyOf(v, v.length * 2);
+        }
+        v[this.size] = value;
+        this.values = v;
+        this.codes.put(value, this.size);
+        return this.size++;
+    }
+
+    /**
+     * Decodes the value
+     * @param code the value code
+     * @return canonical value instance
+     */
+    public String decode(int code) {
+        return this.values[code];
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+}
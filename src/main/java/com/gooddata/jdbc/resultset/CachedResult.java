@@ -0,0 +1,85 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decoded pages of a complete result (within the SQL LIMIT window) kept by the result cache.
+ * Serves the pages to the ResultSets of the repeated queries instead of the AFM execution.
+ */
+public class CachedResult implements CachedResultReader {
+
+    // Pages by their first row
+    private final TreeMap<Integer, ResultPageBuffer> pages;
+    // Dictionaries the attribute values of the pages are encoded with
+    private final AttributeDictionary[] dictionaries;
+    private final long expiresAt;
+
+    /**
+     * Constructor
+     * @param pages pages by their first row covering the whole result window
+     * @param dictionaries attribute value dictionaries of the pages
+     * @param expiresAt expiry time in milliseconds
+     */
+    public CachedResult(TreeMap<Integer, ResultPageBuffer> pages, AttributeDictionary[] dictionaries,
+                        long expiresAt) {
+        this.pages = pages;
+        this.dictionaries = dictionaries;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPageBuffer read(ExecutionResponse response, ResultPage page, int metricCount,
+                                 AttributeDictionary[] dictionaries) throws SQLException {
+        int rowOffset = page.getOffsets().get(0);
+        Map.Entry<Integer, ResultPageBuffer> e = this.pages.floorEntry(rowOffset);
+        // the empty page of the empty result is served for any row
+        if (e != null && (e.getValue().contains(rowOffset) || e.getValue().getRowCount() == 0))
+            return e.getValue();
+        throw new SQLException(String.format("The cached result doesn't contain the row '%d'.", rowOffset));
+    }
+
+    public ResultPageBuffer getFirstPage() {
+        return this.pages.isEmpty() ? null : this.pages.firstEntry().getValue();
+    }
+
+    public TreeMap<Integer, ResultPageBuffer> getPages() {
+        return this.pages;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AttributeDictionary[] getDictionaries() {
+        return this.dictionaries;
+    }
+
+    public long getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= this.expiresAt;
+    }
+
+    /**
+     * Number of the cached rows
+     * @return rows
+     */
+    public int getRowCount() {
+        int rows = 0;
+        for (ResultPageBuffer p : this.pages.values()) {
+            rows += p.getRowCount();
+        }
+        return rows;
+    }
+
+}
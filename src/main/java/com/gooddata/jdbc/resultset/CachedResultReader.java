@@ -0,0 +1,14 @@
+package com.gooddata.jdbc.resultset;
+
+/**
+ * Reads the pages of a cached result that is served instead of the AFM execution
+ */
+public interface CachedResultReader extends ResultPageReader {
+
+    /**
+     * Dictionaries the attribute values of the cached pages are encoded with
+     * @return attribute value dictionaries, one per AFM attribute
+     */
+    AttributeDictionary[] getDictionaries();
+
+}
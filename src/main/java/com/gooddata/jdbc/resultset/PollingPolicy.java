@@ -0,0 +1,97 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.util.ConnectionProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Waits between the polls of the execution result that is still being computed. The first poll follows
+ * the initial delay, the next waits grow exponentially up to the cap. The random jitter spreads the polls
+ * of the queries started at the same time, e.g. by a dashboard, so they don't hit the API in bursts.
+ */
+public class PollingPolicy {
+
+    public static final PollingPolicy DEFAULT = new PollingPolicy(
+            ConnectionProperties.DEFAULT_POLL_INITIAL_DELAY_MS, ConnectionProperties.DEFAULT_POLL_INTERVAL_MS,
+            ConnectionProperties.DEFAULT_POLL_BACKOFF_MULTIPLIER, ConnectionProperties.DEFAULT_POLL_MAX_INTERVAL_MS,
+            ConnectionProperties.DEFAULT_POLL_JITTER);
+
+    private final long initialDelayMs;
+    private final long intervalMs;
+    private final double multiplier;
+    private final long maxIntervalMs;
+    private final double jitter;
+
+    /**
+     * Constructor
+     * @param initialDelayMs wait before the first poll
+     * @param intervalMs wait before the second poll
+     * @param multiplier growth of the wait from poll to poll (1 keeps the interval fixed)
+     * @param maxIntervalMs max wait between the polls
+     * @param jitter random deviation of the wait as a fraction of the wait (0 to 1)
+     */
+    public PollingPolicy(long initialDelayMs, long intervalMs, double multiplier, long maxIntervalMs,
+                         double jitter) {
+        this.initialDelayMs = Math.max(0, initialDelayMs);
+        this.intervalMs = Math.max(1, intervalMs);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.maxIntervalMs = Math.max(this.intervalMs, maxIntervalMs);
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    /**
+     * Policy of the connection properties
+     * @param properties connection properties
+     * @return polling policy
+     */
+    public static PollingPolicy of(ConnectionProperties properties) {
+        return new PollingPolicy(properties.getPollInitialDelayMs(), properties.getPollIntervalMs(),
+                properties.getPollBackoffMultiplier(), properties.getPollMaxIntervalMs(), properties.getPollJitter());
+    }
+
+    /**
+     * Wait before the poll
+     * @param attempt zero based number of the poll
+     * @return wait in milliseconds
+     */
+    public long getDelay(int attempt) {
+        if (attempt <= 0)
+            return this.withJitter(this.initialDelayMs);
+        double delay = this.intervalMs * Math.pow(this.multiplier, attempt - 1);
+        return this.withJitter((long) Math.min(this.maxIntervalMs, delay));
+    }
+
+    private long withJitter(long delay) {
+        if (this.jitter == 0 || delay == 0)
+            return delay;
+        double deviation = this.jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0, Math.round(delay * (1 + deviation)));
+    }
+
+    public long getInitialDelayMs() {
+        return this.initialDelayMs;
+    }
+
+    public long getIntervalMs() {
+        return this.intervalMs;
+    }
+
+    public double getMultiplier() {
+        return this.multiplier;
+    }
+
+    public long getMaxIntervalMs() {
+        return this.maxIntervalMs;
+    }
+
+    public double getJitter() {
+        return this.jitter;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("initialDelayMs='%d', intervalMs='%d', multiplier='%s', maxIntervalMs='%d', jitter='%s'",
+                this.initialDelayMs, this.intervalMs, this.multiplier, this.maxIntervalMs, this.jitter);
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.service.FutureResult;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Query timeout and cancellation of one statement execution. The result page readers poll the server
+ * through this control, so a cancel from another thread or the expired timeout aborts the waiting
+ * for the result instead of blocking the fetching thread. The waits between the polls follow
+ * the polling policy, the number of the polls and the time spent waiting are recorded per query.
+ */
+public class QueryControl {
+
+    private final static Logger LOGGER = Logger.getLogger(QueryControl.class.getName());
+
+    // SQLSTATE of the cancelled operation
+    public static final String SQL_STATE_CANCELLED = "HY008";
+    // SQLSTATE of the expired timeout
+    public static final String SQL_STATE_TIMEOUT = "HYT00";
+
+    private final long timeoutMs;
+    private final PollingPolicy pollingPolicy;
+    private volatile boolean isCancelled = false;
+    // set once a poll finds the result computed, the later pages are requested without the initial delay
+    private volatile boolean isReady = false;
+    private final AtomicInteger polls = new AtomicInteger();
+    private final AtomicLong pollWaitMs = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param timeoutMs max wait for a result page in milliseconds, 0 for no limit
+     */
+    public QueryControl(long timeoutMs) {
+        this(timeoutMs, PollingPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructor
+     * @param timeoutMs max wait for a result page in milliseconds, 0 for no limit
+     * @param pollingPolicy waits between the polls of the result
+     */
+    public QueryControl(long timeoutMs, PollingPolicy pollingPolicy) {
+        this.timeoutMs = Math.max(0, timeoutMs);
+        this.pollingPolicy = pollingPolicy;
+    }
+
+    /**
+     * Control without the timeout
+     * @return new control
+     */
+    public static QueryControl none() {
+        return new QueryControl(0);
+    }
+
+    /**
+     * Cancels the execution, wakes up the threads waiting for the result
+     */
+    public synchronized void cancel() {
+        this.isCancelled = true;
+        this.notifyAll();
+    }
+
+    public boolean isCancelled() {
+        return this.isCancelled;
+    }
+
+    public long getTimeoutMs() {
+        return this.timeoutMs;
+    }
+
+    public PollingPolicy getPollingPolicy() {
+        return this.pollingPolicy;
+    }
+
+    /**
+     * Number of the result requests, including the ones that found the result not computed yet
+     * @return number of polls
+     */
+    public int getPolls() {
+        return this.polls.get();
+    }
+
+    /**
+     * Time spent waiting between the polls
+     * @return wait in milliseconds
+     */
+    public long getPollWaitMs() {
+        return this.pollWaitMs.get();
+    }
+
+    /**
+     * Wait before the poll, the first poll of a computed result isn't delayed
+     * @param attempt zero based number of the poll of one request
+     * @return wait in milliseconds
+     */
+    public long getPollDelay(int attempt) {
+        return attempt == 0 && this.isReady ? 0 : this.pollingPolicy.getDelay(attempt);
+    }
+
+    /**
+     * Records the poll of the result
+     * @param isDone true when the poll returned the computed result
+     * @return isDone
+     */
+    public boolean recordPoll(boolean isDone) {
+        int count = this.polls.incrementAndGet();
+        if (isDone && !this.isReady) {
+            this.isReady = true;
+            LOGGER.fine(String.format("Result computed after polls='%d', waitMs='%d'", count,
+                    this.pollWaitMs.get()));
+        }
+        return isDone;
+    }
+
+    /**
+     * Records the wait between the polls done outside of this control, e.g. by a scheduled poll
+     * @param waitMs wait in milliseconds
+     */
+    public void recordPollWait(long waitMs) {
+        this.pollWaitMs.addAndGet(waitMs);
+    }
+
+    /**
+     * Waits before the poll as the polling policy says, returns early when the execution is cancelled
+     * @param deadline deadline in milliseconds
+     * @param attempt zero based number of the poll of one request
+     * @throws SQLException when the execution was cancelled or interrupted
+     * @throws SQLTimeoutException when the deadline has passed
+     */
+    public void backoff(long deadline, int attempt) throws SQLException {
+        long start = System.currentTimeMillis();
+        try {
+            this.pause(deadline, this.getPollDelay(attempt));
+        } finally {
+            this.pollWaitMs.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Deadline of a wait starting now
+     * @return deadline in milliseconds
+     */
+    public long getDeadline() {
+        return this.timeoutMs > 0 ? System.currentTimeMillis() + this.timeoutMs : Long.MAX_VALUE;
+    }
+
+    /**
+     * Checks that the execution wasn't cancelled and the deadline hasn't passed
+     * @param deadline deadline in milliseconds
+     * @throws SQLException when the execution was cancelled
+     * @throws SQLTimeoutException when the deadline has passed
+     */
+    public void check(long deadline) throws SQLException {
+        if (this.isCancelled)
+            throw new SQLException("The query was cancelled.", SQL_STATE_CANCELLED);
+        if (System.currentTimeMillis() >= deadline)
+            throw new SQLTimeoutException(String.format("The query timeout '%d' ms has expired.", this.timeoutMs),
+                    SQL_STATE_TIMEOUT);
+    }
+
+    /**
+     * Waits before the next poll, returns early when the execution is cancelled
+     * @param deadline deadline in milliseconds
+     * @param intervalMs poll interval
+     * @throws SQLException when the execution was cancelled or interrupted
+     * @throws SQLTimeoutException when the deadline has passed
+     */
+    public void pause(long deadline, long intervalMs) throws SQLException {
+        this.check(deadline);
+        long wait = Math.min(intervalMs, deadline - System.currentTimeMillis());
+        if (wait > 0) {
+            synchronized (this) {
+                try {
+                    if (!this.isCancelled)
+                        this.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for the result page.", SQL_STATE_CANCELLED, e);
+                }
+            }
+        }
+        this.check(deadline);
+    }
+
+    /**
+     * Polls the future result until it is done
+     * @param result future result
+     * @param <T> result type
+     * @return the result
+     * @throws SQLException when the execution was cancelled
+     * @throws SQLTimeoutException when the timeout has expired
+     */
+    public <T> T await(FutureResult<T> result) throws SQLException {
+        long deadline = this.getDeadline();
+        for (int attempt = 0; ; attempt++) {
+            this.backoff(deadline, attempt);
+            if (this.recordPoll(result.isDone()))
+                return result.get();
+        }
+    }
+
+    /**
+     * Was the query aborted by the cancel or by the timeout?
+     * @param e exception
+     * @return true for the cancel and timeout exceptions
+     */
+    public static boolean isAborted(SQLException e) {
+        return e instanceof SQLTimeoutException || SQL_STATE_CANCELLED.equals(e.getSQLState());
+    }
+
+}
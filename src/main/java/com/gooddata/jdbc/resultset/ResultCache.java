@@ -0,0 +1,134 @@
+package com.gooddata.jdbc.resultset;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Driver-wide LRU cache of the complete query results with the TTL expiry.
+ * Shared by all connections in the JVM, repeated queries are served from the decoded pages
+ * without the AFM execution.
+ */
+public class ResultCache {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultCache.class.getName());
+
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+
+    private static final ResultCache SHARED = new ResultCache(DEFAULT_MAX_ENTRIES);
+
+    // access ordered, the eldest entry is the least recently used result
+    private final LinkedHashMap<ResultCacheKey, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxEntries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructor
+     * @param maxEntries max number of cached results
+     */
+    public ResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The cache shared by all connections in the JVM
+     * @return shared cache
+     */
+    public static ResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Looks up the cached result
+     * @param key cache key
+     * @return cached result or null if the result isn't cached or has expired
+     */
+    public synchronized CachedResult get(ResultCacheKey key) {
+        CachedResult result = this.results.get(key);
+        if (result != null && result.isExpired(System.currentTimeMillis())) {
+            this.results.remove(key);
+            this.evictions++;
+            result = null;
+        }
+        if (result == null) {
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        return result;
+    }
+
+    /**
+     * Caches the result, evicts the expired and the least recently used results over the limit
+     * @param key cache key
+     * @param result complete result
+     */
+    public synchronized void put(ResultCacheKey key, CachedResult result) {
+        if (this.maxEntries <= 0)
+            return;
+        LOGGER.fine(String.format("Caching result key='%s', rows='%d'", key.getHash(), result.getRowCount()));
+        this.results.put(key, result);
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<ResultCacheKey, CachedResult>> i = this.results.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry<ResultCacheKey, CachedResult> e = i.next();
+            if (this.results.size() > this.maxEntries || e.getValue().isExpired(now)) {
+                i.remove();
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * Grows the cache to at least the given number of entries. Connections share the cache,
+     * the largest configured size wins.
+     * @param maxEntries max number of cached results
+     */
+    public synchronized void ensureCapacity(int maxEntries) {
+        this.maxEntries = Math.max(this.maxEntries, maxEntries);
+    }
+
+    /**
+     * Drops the cached results of the workspace of all logins, e.g. after its metric was changed
+     * @param host GD server host
+     * @param workspaceUri GD workspace URI
+     */
+    public synchronized void invalidate(String host, String workspaceUri) {
+        String h = host != null ? host : "";
+        String w = workspaceUri != null ? workspaceUri : "";
+        int size = this.results.size();
+        this.results.keySet().removeIf(k -> k.getHost().equals(h) && k.getWorkspaceUri().equals(w));
+        LOGGER.fine(String.format("Invalidated '%d' results of workspace='%s'", size - this.results.size(), w));
+    }
+
+    /**
+     * Drops all cached results
+     */
+    public synchronized void clear() {
+        this.results.clear();
+    }
+
+    public synchronized int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public synchronized int size() {
+        return this.results.size();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+}
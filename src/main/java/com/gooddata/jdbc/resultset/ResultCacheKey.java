@@ -0,0 +1,120 @@
+package com.gooddata.jdbc.resultset;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gooddata.sdk.model.executeafm.Execution;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Result cache key - canonical JSON of the AFM execution (AFM and sort items) with the SQL LIMIT, OFFSET,
+ * the workspace URI, the server host and the login. The results depend on the user's data permissions
+ * and mandatory user filters, so a result is never served to another login.
+ */
+public class ResultCacheKey {
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final String host;
+    private final String login;
+    private final String workspaceUri;
+    private final String execution;
+    private final int limit;
+    private final int offset;
+
+    /**
+     * Constructor
+     * @param host GD server host
+     * @param login login of the connection
+     * @param workspaceUri GD workspace URI
+     * @param execution canonical form of the AFM execution
+     * @param limit SQL LIMIT
+     * @param offset SQL OFFSET
+     */
+    public ResultCacheKey(String host, String login, String workspaceUri, String execution, int limit, int offset) {
+        this.host = host != null ? host : "";
+        this.login = login != null ? login : "";
+        this.workspaceUri = workspaceUri != null ? workspaceUri : "";
+        this.execution = execution;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    /**
+     * Creates the key from the AFM execution
+     * @param host GD server host
+     * @param login login of the connection
+     * @param workspaceUri GD workspace URI
+     * @param execution AFM execution including the result spec with sort items
+     * @param limit SQL LIMIT
+     * @param offset SQL OFFSET
+     * @return cache key
+     * @throws JsonProcessingException when the execution can't be serialized
+     */
+    public static ResultCacheKey of(String host, String login, String workspaceUri, Execution execution, int limit,
+                                    int offset) throws JsonProcessingException {
+        return new ResultCacheKey(host, login, workspaceUri, CANONICAL_MAPPER.writeValueAsString(execution), limit,
+                offset);
+    }
+
+    public String getHost() {
+        return this.host;
+    }
+
+    public String getLogin() {
+        return this.login;
+    }
+
+    public String getWorkspaceUri() {
+        return this.workspaceUri;
+    }
+
+    /**
+     * SHA-256 content hash of the key
+     * @return hex encoded hash
+     */
+    public String getHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(this.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ResultCacheKey))
+            return false;
+        ResultCacheKey k = (ResultCacheKey) o;
+        return this.limit == k.limit && this.offset == k.offset && this.host.equals(k.host)
+                && this.login.equals(k.login) && this.workspaceUri.equals(k.workspaceUri)
+                && this.execution.equals(k.execution);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.host, this.login, this.workspaceUri, this.execution, this.limit, this.offset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s|%s|%s|%s|%d|%d", this.host, this.login, this.workspaceUri, this.execution,
+                this.limit, this.offset);
+    }
+
+}
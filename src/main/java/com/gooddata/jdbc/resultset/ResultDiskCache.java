@@ -0,0 +1,279 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.driver.AfmDriver;
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Persistent result cache under the ~/.gdjdbc/results directory that survives the JVM restarts.
+ * Every result is stored in the directory of its server host, login and workspace in a file named by the content
+ * hash of its key, the results of one login are never served to another login.
+ * The file holds the expiry, the key, the attribute dictionaries and the pages in the compact binary layout,
+ * followed by the page index. Pages are decoded lazily from the memory-mapped file.
+ */
+public class ResultDiskCache {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultDiskCache.class.getName());
+
+    private static final int MAGIC = 0x47445243; // GDRC
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".result";
+
+    private static final ResultDiskCache SHARED = new ResultDiskCache(Paths.get(AfmDriver.GDJDBC_DIR, "results"));
+
+    private final Path root;
+
+    /**
+     * Constructor
+     * @param root cache root directory
+     */
+    public ResultDiskCache(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * The cache in the driver directory
+     * @return shared cache
+     */
+    public static ResultDiskCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Result stored in the cache file, pages are decoded on demand from the mapped file
+     */
+    public static class Entry implements CachedResultReader {
+
+        private final MappedByteBuffer buffer;
+        // page positions by their first row
+        private final TreeMap<Integer, Integer> pages;
+        private final AttributeDictionary[] dictionaries;
+
+        Entry(MappedByteBuffer buffer, TreeMap<Integer, Integer> pages, AttributeDictionary[] dictionaries) {
+            this.buffer = buffer;
+            this.pages = pages;
+            this.dictionaries = dictionaries;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized ResultPageBuffer read(ExecutionResponse response, ResultPage page, int metricCount,
+                                                  AttributeDictionary[] dictionaries) throws SQLException {
+            int rowOffset = page.getOffsets().get(0);
+            Map.Entry<Integer, Integer> e = this.pages.floorEntry(rowOffset);
+            if (e != null) {
+                ByteBuffer b = this.buffer.duplicate();
+                b.position(e.getValue());
+                ResultPageBuffer p = ResultPageBuffer.readFrom(b, this.dictionaries);
+                // the empty page of the empty result is served for any row
+                if (p.contains(rowOffset) || p.getRowCount() == 0)
+                    return p;
+            }
+            throw new SQLException(String.format("The cached result doesn't contain the row '%d'.", rowOffset));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public AttributeDictionary[] getDictionaries() {
+            return this.dictionaries;
+        }
+
+        public int getPageCount() {
+            return this.pages.size();
+        }
+    }
+
+    /**
+     * Looks up the stored result
+     * @param key cache key
+     * @param dictionarySize max size of the restored attribute dictionaries
+     * @return the entry or null if the result isn't stored, has expired or can't be read
+     */
+    public Entry get(ResultCacheKey key, int dictionarySize) {
+        Path file = this.getFile(key);
+        if (!Files.exists(file))
+            return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                LOGGER.warning(String.format("Deleting result cache file '%s' of unknown format", file));
+                Files.deleteIfExists(file);
+                return null;
+            }
+            long expiresAt = buffer.getLong();
+            if (System.currentTimeMillis() >= expiresAt) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            // the full key guards against the hash collisions
+            if (!key.toString().equals(ResultPageBuffer.readString(buffer)))
+                return null;
+            AttributeDictionary[] dictionaries = new AttributeDictionary[buffer.getInt()];
+            for (int a = 0; a < dictionaries.length; a++) {
+                int size = buffer.getInt();
+                dictionaries[a] = new AttributeDictionary(Math.max(size, dictionarySize));
+                for (int i = 0; i < size; i++) {
+                    dictionaries[a].encode(ResultPageBuffer.readString(buffer));
+                }
+            }
+            buffer.position(buffer.getInt(buffer.limit() - 4));
+            int pageCount = buffer.getInt();
+            TreeMap<Integer, Integer> pages = new TreeMap<>();
+            for (int i = 0; i < pageCount; i++) {
+                pages.put(buffer.getInt(), buffer.getInt());
+            }
+            LOGGER.info(String.format("Result cache file '%s' loaded", file));
+            return new Entry(buffer, pages, dictionaries);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning(String.format("Can't read result cache file '%s': %s", file, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Stores the complete result, deletes the expired results of the workspace
+     * @param key cache key
+     * @param pages pages by their first row
+     * @param dictionaries attribute value dictionaries of the pages
+     * @param expiresAt expiry time in milliseconds
+     */
+    public void put(ResultCacheKey key, TreeMap<Integer, ResultPageBuffer> pages,
+                    AttributeDictionary[] dictionaries, long expiresAt) {
+        Path file = this.getFile(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            this.deleteExpired(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), key.getHash(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(expiresAt);
+                ResultPageBuffer.writeString(out, key.toString());
+                out.writeInt(dictionaries.length);
+                for (AttributeDictionary d : dictionaries) {
+                    int size = d.size();
+                    out.writeInt(size);
+                    for (int i = 0; i < size; i++) {
+                        ResultPageBuffer.writeString(out, d.decode(i));
+                    }
+                }
+                TreeMap<Integer, Integer> positions = new TreeMap<>();
+                for (ResultPageBuffer p : pages.values()) {
+                    positions.put(p.getRowOffset(), out.size());
+                    p.writeTo(out);
+                }
+                int indexPosition = out.size();
+                out.writeInt(positions.size());
+                for (Map.Entry<Integer, Integer> e : positions.entrySet()) {
+                    out.writeInt(e.getKey());
+                    out.writeInt(e.getValue());
+                }
+                out.writeInt(indexPosition);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info(String.format("Result stored to the cache file '%s'", file));
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Can't store result cache file '%s': %s", file, e.getMessage()));
+            try {
+                if (tmp != null)
+                    Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // the temp file is left behind
+            }
+        }
+    }
+
+    /**
+     * Deletes the stored results of the workspace of all logins, e.g. after its metric was changed
+     * @param host GD server host
+     * @param workspaceUri GD workspace URI
+     */
+    public void invalidate(String host, String workspaceUri) {
+        Path hostDirectory = this.root.resolve(directoryName(host != null ? host : ""));
+        String workspace = directoryName(workspaceUri != null ? workspaceUri.replaceAll(".*/", "") : "");
+        if (!Files.isDirectory(hostDirectory))
+            return;
+        try (DirectoryStream<Path> logins = Files.newDirectoryStream(hostDirectory, Files::isDirectory)) {
+            for (Path login : logins) {
+                Path directory = login.resolve(workspace);
+                if (!Files.isDirectory(directory))
+                    continue;
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                    for (Path f : files) {
+                        Files.deleteIfExists(f);
+                    }
+                }
+                LOGGER.info(String.format("Invalidated result cache directory '%s'", directory));
+            }
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Can't invalidate result cache of workspace '%s': %s", workspaceUri,
+                    e.getMessage()));
+        }
+    }
+
+    private void deleteExpired(Path directory) throws IOException {
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path f : files) {
+                try (FileChannel channel = FileChannel.open(f, StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(16);
+                    channel.read(header, 0);
+                    header.flip();
+                    if (header.remaining() < 16 || header.getInt() != MAGIC || header.getInt() != VERSION
+                            || header.getLong() <= now) {
+                        channel.close();
+                        Files.deleteIfExists(f);
+                    }
+                } catch (IOException e) {
+                    LOGGER.warning(String.format("Can't check result cache file '%s': %s", f, e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Cache file in the host, login and workspace scoped directory named by the content hash of the key
+     * @param key cache key
+     * @return file path
+     */
+    Path getFile(ResultCacheKey key) {
+        return this.root.resolve(directoryName(key.getHost()))
+                .resolve(directoryName(key.getLogin()))
+                .resolve(directoryName(key.getWorkspaceUri().replaceAll(".*/", "")))
+                .resolve(key.getHash() + EXTENSION);
+    }
+
+    /**
+     * Directory name of the host, login or workspace. The names of the different values may collide,
+     * the full key stored in the file tells them apart.
+     * @param value host, login or workspace id
+     * @return name safe for the file systems
+     */
+    private static String directoryName(String value) {
+        String name = value.replaceAll("[^A-Za-z0-9_.@-]", "_");
+        return name.isEmpty() || name.startsWith(".") ? "default" + name : name;
+    }
+
+}
@@ -0,0 +1,343 @@
+package com.gooddata.jdbc.resultset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Bulk export of the AfmResultSet rows to a file. The decoded result pages are written straight to
+ * a buffered FileChannel without the per row JDBC calls. Metric values are formatted from the decoded
+ * decimal values, attribute values are escaped and encoded once per dictionary code.
+ */
+public class ResultExporter {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultExporter.class.getName());
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] JSON_NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Export file format
+     */
+    public enum Format {
+        // comma separated values with the header row (RFC 4180 quoting)
+        CSV,
+        // tab separated values with the header row, tabs and line breaks are backslash escaped
+        TSV,
+        // JSON object per line
+        JSONL,
+        // Apache Arrow IPC stream, requires arrow-vector on the classpath
+        ARROW
+    }
+
+    /**
+     * Export throughput
+     */
+    public static class Stats {
+
+        private final long rows;
+        private final long bytes;
+        private final long millis;
+
+        Stats(long rows, long bytes, long millis) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        public long getRows() {
+            return this.rows;
+        }
+
+        public long getBytes() {
+            return this.bytes;
+        }
+
+        public long getMillis() {
+            return this.millis;
+        }
+
+        public double getRowsPerSecond() {
+            return this.rows * 1000.0 / Math.max(1, this.millis);
+        }
+
+        public double getBytesPerSecond() {
+            return this.bytes * 1000.0 / Math.max(1, this.millis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rows='%d', bytes='%d', ms='%d', rows/s='%.0f', bytes/s='%.0f'",
+                    this.rows, this.bytes, this.millis, this.getRowsPerSecond(), this.getBytesPerSecond());
+        }
+    }
+
+    private final AfmResultSet resultSet;
+    private final Format format;
+    private final byte separator;
+    private final boolean[] isMetric;
+    private final int[] positions;
+    // escaped column names (header cells or JSON keys with the colon)
+    private final byte[][] names;
+    // escaped attribute values by the dictionary code, per column
+    private final byte[][][] values;
+
+    // formatted metric value
+    private final byte[] number = new byte[ResultPageBuffer.MetricColumn.MAX_ASCII_LENGTH];
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private long bytes;
+
+    /**
+     * Constructor
+     * @param resultSet exported ResultSet
+     * @param format file format
+     * @throws SQLException when the ResultSet metadata can't be read
+     */
+    public ResultExporter(AfmResultSet resultSet, Format format) throws SQLException {
+        if (format == Format.ARROW)
+            throw new SQLException("The Arrow export is done by the ArrowResultReader.");
+        this.resultSet = resultSet;
+        this.format = format;
+        this.separator = (byte) (format == Format.TSV ? '\t' : ',');
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        this.isMetric = new boolean[columnCount];
+        this.positions = new int[columnCount];
+        this.names = new byte[columnCount][];
+        this.values = new byte[columnCount][][];
+        for (int i = 0; i < columnCount; i++) {
+            this.isMetric[i] = resultSet.isMetric(i + 1);
+            this.positions[i] = resultSet.getColumnPagePosition(i + 1);
+            String name = resultSet.getMetaData().getColumnName(i + 1);
+            this.names[i] = format == Format.JSONL
+                    ? (escape(name, format) + ":").getBytes(StandardCharsets.UTF_8)
+                    : escape(name, format).getBytes(StandardCharsets.UTF_8);
+            this.values[i] = new byte[0][];
+        }
+    }
+
+    /**
+     * Writes the rows from the given row to the end of the ResultSet
+     * @param file target file, it is overwritten
+     * @param firstRow zero based index of the first exported row
+     * @return export throughput
+     * @throws SQLException when the pages can't be fetched or the file can't be written
+     */
+    public Stats export(Path file, int firstRow) throws SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        this.bytes = 0;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            this.channel = channel;
+            if (this.format != Format.JSONL)
+                this.writeHeader();
+            int rowCount = this.resultSet.getRowCount();
+            int offset = this.resultSet.getSqlOffset();
+            int row = Math.max(0, firstRow);
+            while (row < rowCount) {
+                ResultPageBuffer page = this.resultSet.getPageAt(row);
+                int first = row + offset - page.getRowOffset();
+                int last = Math.min(page.getRowCount(), rowCount + offset - page.getRowOffset());
+                if (last <= first)
+                    break;
+                for (int r = first; r < last; r++) {
+                    this.writeRow(page, r);
+                }
+                rows += last - first;
+                row += last - first;
+            }
+            this.flush();
+        } catch (IOException e) {
+            throw new SQLException(String.format("Export to the file '%s' failed.", file), e);
+        } finally {
+            this.channel = null;
+            this.buffer = null;
+        }
+        Stats stats = new Stats(rows, this.bytes, (System.nanoTime() - start) / 1000000);
+        LOGGER.info(String.format("Exported to '%s' %s", file, stats));
+        return stats;
+    }
+
+    private void writeHeader() throws IOException {
+        for (int i = 0; i < this.names.length; i++) {
+            if (i > 0)
+                this.put(this.separator);
+            this.put(this.names[i]);
+        }
+        this.put((byte) '\n');
+    }
+
+    private void writeRow(ResultPageBuffer page, int row) throws IOException {
+        boolean isJson = this.format == Format.JSONL;
+        if (isJson)
+            this.put((byte) '{');
+        for (int i = 0; i < this.isMetric.length; i++) {
+            if (i > 0)
+                this.put(this.separator);
+            if (isJson)
+                this.put(this.names[i]);
+            if (this.isMetric[i]) {
+                ResultPageBuffer.MetricColumn metric = page.getMetric(this.positions[i]);
+                if (metric.isNull(row)) {
+                    if (isJson)
+                        this.put(JSON_NULL);
+                } else if (isJson && !Double.isFinite(metric.getValue(row))) {
+                    // JSON has no NaN nor infinity numbers
+                    this.put(JSON_NULL);
+                } else {
+                    // the formatted number is plain ASCII without any characters to escape
+                    int start = metric.formatAscii(row, this.number);
+                    if (start >= 0)
+                        this.put(this.number, start, this.number.length - start);
+                    else
+                        this.put(metric.getText(row).getBytes(StandardCharsets.US_ASCII));
+                }
+            } else {
+                this.put(this.getAttributeValue(i, page.getAttribute(this.positions[i]), row));
+            }
+        }
+        if (isJson)
+            this.put((byte) '}');
+        this.put((byte) '\n');
+    }
+
+    /**
+     * Escaped attribute value, cached by its dictionary code
+     * @param column column index
+     * @param attribute attribute column of the page
+     * @param row row within the page
+     * @return encoded value
+     */
+    private byte[] getAttributeValue(int column, ResultPageBuffer.AttributeColumn attribute, int row) {
+        int code = attribute.getCode(row);
+        if (code == AttributeDictionary.NOT_ENCODED)
+            return this.encode(attribute.getValue(row));
+        byte[][] cache = this.values[column];
+        if (code >= cache.length) {
+            cache = Arrays.copyOf(cache, Math.max(code + 1, cache.length * 2));
+            this.values[column] = cache;
+        }
+        if (cache[code] == null)
+            cache[code] = this.encode(attribute.getValue(row));
+        return cache[code];
+    }
+
+    private byte[] encode(String value) {
+        if (value == null)
+            return this.format == Format.JSONL ? JSON_NULL : EMPTY;
+        return escape(value, this.format).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes the textual value for the format
+     * @param value value
+     * @param format file format
+     * @return escaped value, JSON strings are quoted
+     */
+    static String escape(String value, Format format) {
+        StringBuilder s = new StringBuilder(value.length() + 2);
+        switch (format) {
+            case CSV:
+                boolean isQuoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+                if (!isQuoted)
+                    return value;
+                s.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '"')
+                        s.append('"');
+                    s.append(c);
+                }
+                return s.append('"').toString();
+            case TSV:
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    switch (c) {
+                        case '\\':
+                            s.append("\\\\");
+                            break;
+                        case '\t':
+                            s.append("\\t");
+                            break;
+                        case '\n':
+                            s.append("\\n");
+                            break;
+                        case '\r':
+                            s.append("\\r");
+                            break;
+                        default:
+                            s.append(c);
+                    }
+                }
+                return s.toString();
+            default:
+                s.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    switch (c) {
+                        case '"':
+                            s.append("\\\"");
+                            break;
+                        case '\\':
+                            s.append("\\\\");
+                            break;
+                        case '\n':
+                            s.append("\\n");
+                            break;
+                        case '\r':
+                            s.append("\\r");
+                            break;
+                        case '\t':
+                            s.append("\\t");
+                            break;
+                        default:
+                            if (c < 0x20)
+                                s.append(String.format("\\u%04x", (int) c));
+                            else
+                                s.append(c);
+                    }
+                }
+                return s.append('"').toString();
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!this.buffer.hasRemaining())
+            this.flush();
+        this.buffer.put(b);
+    }
+
+    private void put(byte[] b) throws IOException {
+        this.put(b, 0, b.length);
+    }
+
+    private void put(byte[] b, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            if (!this.buffer.hasRemaining())
+                this.flush();
+            int n = Math.min(end - offset, this.buffer.remaining());
+            this.buffer.put(b, offset, n);
+            offset += n;
+        }
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.bytes += this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+}
@@ -0,0 +1,624 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.model.executeafm.result.Data;
+import com.gooddata.sdk.model.executeafm.result.DataList;
+import com.gooddata.sdk.model.executeafm.result.DataValue;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
+import com.gooddata.sdk.model.executeafm.result.Paging;
+import com.gooddata.sdk.model.executeafm.result.ResultHeaderItem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar buffer of one AFM result page. The page is decoded once when fetched, metric values are kept
+ * as primitive doubles and exact unscaled longs with a null bitmap and attribute values are dictionary coded.
+ */
+public class ResultPageBuffer {
+
+    /**
+     * Metric column values, decoded once to the double and to the exact decimal value
+     */
+    public static class MetricColumn {
+
+        // scale of the values that didn't fit to the unscaled long
+        private static final byte OVERFLOW = -1;
+        // scale of the NaN and infinite values that have no decimal value
+        private static final byte NOT_DECIMAL = -2;
+        // max digits of the unscaled long
+        private static final int MAX_UNSCALED_DIGITS = 18;
+        // max unscaled value that is an exact double, its division by the exact power of ten is correctly rounded
+        private static final long MAX_EXACT_DOUBLE = 1L << 53;
+        // max length of the formatted unscaled long: sign, digits, leading zero and decimal point
+        public static final int MAX_ASCII_LENGTH = MAX_UNSCALED_DIGITS + 3;
+        private static final double[] POWERS_OF_TEN = new double[MAX_UNSCALED_DIGITS + 1];
+
+        static {
+            POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
+
+        private final double[] values;
+        private final long[] nulls;
+        // exact decimal value as the unscaled long and its scale
+        private final long[] unscaled;
+        private final byte[] scales;
+        // values that didn't fit to the unscaled long
+        private BigDecimal[] overflow;
+
+        MetricColumn(int rowCount) {
+            this.values = new double[rowCount];
+            this.nulls = new long[(rowCount + 63) >>> 6];
+            this.unscaled = new long[rowCount];
+            this.scales = new byte[rowCount];
+        }
+
+        void set(int row, String textValue) throws SQLException {
+            if (textValue == null) {
+                this.nulls[row >>> 6] |= 1L << row;
+            } else if (!this.setDecimal(row, textValue)) {
+                try {
+                    this.setOverflow(row, new BigDecimal(textValue));
+                    this.values[row] = Double.parseDouble(textValue);
+                } catch (NumberFormatException e) {
+                    this.setNotDecimal(row, textValue);
+                }
+            }
+        }
+
+        /**
+         * Decodes the plain decimal number of up to 18 digits without any allocation
+         * @return false if the value has other format
+         */
+        private boolean setDecimal(int row, String textValue) {
+            int length = textValue.length();
+            int i = 0;
+            boolean isNegative = false;
+            if (length > 0 && (textValue.charAt(0) == '-' || textValue.charAt(0) == '+')) {
+                isNegative = textValue.charAt(0) == '-';
+                i++;
+            }
+            long value = 0;
+            int digits = 0;
+            int scale = -1;
+            for (; i < length; i++) {
+                char c = textValue.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    if (digits == MAX_UNSCALED_DIGITS)
+                        return false;
+                    value = value * 10 + (c - '0');
+                    digits++;
+                    if (scale >= 0)
+                        scale++;
+                } else if (c == '.' && scale < 0) {
+                    scale = 0;
+                } else {
+                    return false;
+                }
+            }
+            if (digits == 0)
+                return false;
+            scale = Math.max(0, scale);
+            this.unscaled[row] = isNegative ? -value : value;
+            this.scales[row] = (byte) scale;
+            // both operands are exact, so the division is the correctly rounded value of the text
+            this.values[row] = value < MAX_EXACT_DOUBLE
+                    ? this.unscaled[row] / POWERS_OF_TEN[scale]
+                    : Double.parseDouble(textValue);
+            return true;
+        }
+
+        /**
+         * Column of the first rows of this column
+         * @param rowCount number of rows to keep
+         * @return this column when it has rowCount rows, its truncated copy otherwise
+         */
+        MetricColumn trim(int rowCount) {
+            if (rowCount == this.values.length)
+                return this;
+            MetricColumn c = new MetricColumn(rowCount);
+            System.arraycopy(this.values, 0, c.values, 0, rowCount);
+            System.arraycopy(this.nulls, 0, c.nulls, 0, c.nulls.length);
+            System.arraycopy(this.unscaled, 0, c.unscaled, 0, rowCount);
+            System.arraycopy(this.scales, 0, c.scales, 0, rowCount);
+            if (this.overflow != null)
+                c.overflow = Arrays.copyOf(this.overflow, rowCount);
+            return c;
+        }
+
+        private void setOverflow(int row, BigDecimal value) {
+            if (this.overflow == null)
+                this.overflow = new BigDecimal[this.values.length];
+            this.overflow[row] = value;
+            this.scales[row] = OVERFLOW;
+        }
+
+        private void setNotDecimal(int row, String textValue) throws SQLException {
+            try {
+                this.values[row] = Double.parseDouble(textValue);
+            } catch (NumberFormatException e) {
+                throw new SQLException(String.format("Invalid metric value '%s'.", textValue), e);
+            }
+            this.scales[row] = NOT_DECIMAL;
+        }
+
+        public double getValue(int row) {
+            return this.values[row];
+        }
+
+        public boolean isNull(int row) {
+            return (this.nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        /**
+         * Exact decimal value
+         * @param row row index within the page
+         * @return value or null for NULL
+         * @throws SQLException when the value is NaN or infinite
+         */
+        public BigDecimal getBigDecimal(int row) throws SQLException {
+            if (this.isNull(row))
+                return null;
+            switch (this.scales[row]) {
+                case OVERFLOW:
+                    return this.overflow[row];
+                case NOT_DECIMAL:
+                    throw new SQLException(String.format("Metric value '%s' isn't a decimal number.",
+                            this.values[row]));
+                default:
+                    return BigDecimal.valueOf(this.unscaled[row], this.scales[row]);
+            }
+        }
+
+        /**
+         * Exact long value, the fraction is truncated
+         * @param row row index within the page
+         * @return value or 0 for NULL
+         */
+        public long getLong(int row) {
+            if (this.isNull(row))
+                return 0;
+            int scale = this.scales[row];
+            switch (scale) {
+                case OVERFLOW:
+                    return this.overflow[row].longValue();
+                case NOT_DECIMAL:
+                    return (long) this.values[row];
+                case 0:
+                    return this.unscaled[row];
+                default:
+                    return this.unscaled[row] / (long) POWERS_OF_TEN[scale];
+            }
+        }
+
+        /**
+         * Textual value, the decimal numbers are formatted without the exponent and keep their scale
+         * @param row row index within the page
+         * @return value or null for NULL
+         */
+        public String getText(int row) {
+            if (this.isNull(row))
+                return null;
+            switch (this.scales[row]) {
+                case OVERFLOW:
+                    return this.overflow[row].toPlainString();
+                case NOT_DECIMAL:
+                    return Double.toString(this.values[row]);
+                case 0:
+                    return Long.toString(this.unscaled[row]);
+                default:
+                    return BigDecimal.valueOf(this.unscaled[row], this.scales[row]).toPlainString();
+            }
+        }
+
+        /**
+         * Formats the decimal value as getText does to the ASCII bytes without creating the text
+         * @param row row index within the page
+         * @param out target of at least MAX_ASCII_LENGTH bytes, the value is written to its end
+         * @return index of the first byte of the value in the out, -1 for NULL and the values without
+         * the unscaled long that are read by getText
+         */
+        public int formatAscii(int row, byte[] out) {
+            int scale = this.scales[row];
+            if (this.isNull(row) || scale < 0)
+                return -1;
+            long value = this.unscaled[row];
+            long digits = Math.abs(value);
+            int i = out.length;
+            // the digits of the fraction and at least one digit of the integer part
+            for (int d = 0; d <= scale || digits > 0; d++) {
+                if (d == scale && scale > 0)
+                    out[--i] = '.';
+                out[--i] = (byte) ('0' + digits % 10);
+                digits /= 10;
+            }
+            if (value < 0)
+                out[--i] = '-';
+            return i;
+        }
+
+        /**
+         * Copies the values of the consecutive rows, NULL values are copied as NaN
+         * @param row first row
+         * @param out target array
+         * @param offset first index of the target array
+         * @param n number of rows
+         */
+        public void copyValues(int row, double[] out, int offset, int n) {
+            System.arraycopy(this.values, row, out, offset, n);
+            for (int r = 0; r < n; r++) {
+                if (this.isNull(row + r))
+                    out[offset + r] = Double.NaN;
+            }
+        }
+
+        long estimateHeapSize(int rowCount) {
+            long size = 4 * ARRAY_HEADER + 8L * this.values.length + 8L * this.nulls.length
+                    + 8L * this.unscaled.length + this.scales.length;
+            if (this.overflow != null) {
+                size += ARRAY_HEADER + 4L * this.overflow.length;
+                for (int row = 0; row < rowCount; row++) {
+                    if (this.overflow[row] != null)
+                        size += BIG_DECIMAL_HEADER + this.overflow[row].unscaledValue().bitLength() / 8;
+                }
+            }
+            return size;
+        }
+
+        void writeTo(DataOutputStream out, int rowCount) throws IOException {
+            for (int i = 0; i < (rowCount + 63) >>> 6; i++) {
+                out.writeLong(this.nulls[i]);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                out.writeDouble(this.values[row]);
+                out.writeLong(this.unscaled[row]);
+                out.writeByte(this.scales[row]);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (this.scales[row] == OVERFLOW)
+                    writeString(out, this.overflow[row].toString());
+            }
+        }
+
+        static MetricColumn readFrom(ByteBuffer in, int rowCount) {
+            MetricColumn c = new MetricColumn(rowCount);
+            for (int i = 0; i < c.nulls.length; i++) {
+                c.nulls[i] = in.getLong();
+            }
+            for (int row = 0; row < rowCount; row++) {
+                c.values[row] = in.getDouble();
+                c.unscaled[row] = in.getLong();
+                c.scales[row] = in.get();
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (c.scales[row] == OVERFLOW)
+                    c.setOverflow(row, new BigDecimal(readString(in)));
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Dictionary coded attribute column values
+     */
+    public static class AttributeColumn {
+
+        private final int[] codes;
+        private final AttributeDictionary dictionary;
+        // values that didn't fit to the full dictionary
+        private String[] overflow;
+
+        AttributeColumn(int rowCount, AttributeDictionary dictionary) {
+            this.codes = new int[rowCount];
+            this.dictionary = dictionary;
+        }
+
+        void set(int row, String value) {
+            int code = this.dictionary.encode(value);
+            this.codes[row] = code;
+            if (code == AttributeDictionary.NOT_ENCODED) {
+                if (this.overflow == null)
+                    this.overflow = new String[this.codes.length];
+                this.overflow[row] = value;
+            }
+        }
+
+        /**
+         * Column of the first rows of this column
+         * @param rowCount number of rows to keep
+         * @return this column when it has rowCount rows, its truncated copy otherwise
+         */
+        AttributeColumn trim(int rowCount) {
+            if (rowCount == this.codes.length)
+                return this;
+            AttributeColumn c = new AttributeColumn(rowCount, this.dictionary);
+            System.arraycopy(this.codes, 0, c.codes, 0, rowCount);
+            if (this.overflow != null)
+                c.overflow = Arrays.copyOf(this.overflow, rowCount);
+            return c;
+        }
+
+        /**
+         * Dictionary code of the value
+         * @param row row index within the page
+         * @return code or AttributeDictionary.NOT_ENCODED when the value isn't in the dictionary
+         */
+        public int getCode(int row) {
+            return this.codes[row];
+        }
+
+        AttributeDictionary getDictionary() {
+            return this.dictionary;
+        }
+
+        public String getValue(int row) {
+            int code = this.codes[row];
+            return code == AttributeDictionary.NOT_ENCODED ? this.overflow[row] : this.dictionary.decode(code);
+        }
+
+        long estimateHeapSize(int rowCount) {
+            long size = ARRAY_HEADER + 4L * this.codes.length;
+            if (this.overflow != null) {
+                size += ARRAY_HEADER + 4L * this.overflow.length;
+                for (int row = 0; row < rowCount; row++) {
+                    if (this.overflow[row] != null)
+                        size += STRING_HEADER + 2L * this.overflow[row].length();
+                }
+            }
+            return size;
+        }
+
+        void writeTo(DataOutputStream out, int rowCount) throws IOException {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeInt(this.codes[row]);
+            }
+            // only the values that aren't in the dictionary are written as text
+            for (int row = 0; row < rowCount; row++) {
+                if (this.codes[row] == AttributeDictionary.NOT_ENCODED)
+                    writeString(out, this.overflow[row]);
+            }
+        }
+
+        static AttributeColumn readFrom(ByteBuffer in, int rowCount, AttributeDictionary dictionary) {
+            AttributeColumn c = new AttributeColumn(rowCount, dictionary);
+            for (int row = 0; row < rowCount; row++) {
+                c.codes[row] = in.getInt();
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (c.codes[row] == AttributeDictionary.NOT_ENCODED) {
+                    if (c.overflow == null)
+                        c.overflow = new String[rowCount];
+                    c.overflow[row] = readString(in);
+                }
+            }
+            return c;
+        }
+    }
+
+    // rough JVM object sizes used by the heap estimate
+    private static final long ARRAY_HEADER = 16;
+    private static final long STRING_HEADER = 40;
+    private static final long BIG_DECIMAL_HEADER = 64;
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final int rowOffset;
+    private final int rowCount;
+    private final int totalRows;
+    private final MetricColumn[] metrics;
+    private final AttributeColumn[] attributes;
+    private long heapSize = -1;
+
+    /**
+     * Constructor
+     * @param rowOffset first row of the page
+     * @param rowCount number of rows in the page
+     * @param totalRows total number of rows of the AFM result
+     * @param metrics metric columns in the AFM order
+     * @param attributes attribute columns in the AFM order
+     */
+    public ResultPageBuffer(int rowOffset, int rowCount, int totalRows, MetricColumn[] metrics,
+                            AttributeColumn[] attributes) {
+        this.rowOffset = rowOffset;
+        this.rowCount = rowCount;
+        this.totalRows = totalRows;
+        this.metrics = metrics;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Decodes the AFM result page
+     * @param result AFM result page
+     * @param metricCount number of metrics in the AFM
+     * @param dictionaries attribute value dictionaries shared across pages, one per AFM attribute
+     * @return decoded page
+     * @throws SQLException when the result page has unexpected structure
+     */
+    public static ResultPageBuffer decode(ExecutionResult result, int metricCount,
+                                          AttributeDictionary[] dictionaries) throws SQLException {
+        Paging paging = result.getPaging();
+        int rowOffset = paging.getOffset().get(0);
+        int rowCount = paging.getCount().get(0);
+        int totalRows = paging.getTotal().get(0);
+
+        MetricColumn[] metrics = new MetricColumn[metricCount];
+        for (int m = 0; m < metricCount; m++) {
+            metrics[m] = new MetricColumn(rowCount);
+        }
+        if (metricCount > 0) {
+            DataList data = result.getData();
+            for (int row = 0; row < rowCount; row++) {
+                Data d = data.get(row);
+                if (d == null) {
+                    for (int m = 0; m < metricCount; m++) {
+                        metrics[m].set(row, null);
+                    }
+                } else if (d instanceof DataList) {
+                    DataList values = (DataList) d;
+                    for (int m = 0; m < metricCount; m++) {
+                        Data value = values.get(m);
+                        metrics[m].set(row, value != null ? value.textValue() : null);
+                    }
+                } else if (d instanceof DataValue) {
+                    metrics[0].set(row, ((DataValue) d).textValue());
+                } else {
+                    throw new SQLException(String.format("ResultPageBuffer.decode invalid data instance '%s'",
+                            d.getClass().getName()));
+                }
+            }
+        }
+
+        AttributeColumn[] attributes = new AttributeColumn[dictionaries.length];
+        for (int a = 0; a < dictionaries.length; a++) {
+            attributes[a] = new AttributeColumn(rowCount, dictionaries[a]);
+            if (rowCount > 0) {
+                List<ResultHeaderItem> headers = result.getHeaderItems().get(0).get(a);
+                for (int row = 0; row < rowCount; row++) {
+                    attributes[a].set(row, headers.get(row).getName());
+                }
+            }
+        }
+        return new ResultPageBuffer(rowOffset, rowCount, totalRows, metrics, attributes);
+    }
+
+    /**
+     * Page of the result without any rows
+     * @param rowOffset first row of the page, also the total number of rows
+     * @param metricCount number of metrics in the AFM
+     * @param dictionaries attribute value dictionaries, one per AFM attribute
+     * @return empty page
+     */
+    public static ResultPageBuffer empty(int rowOffset, int metricCount, AttributeDictionary[] dictionaries) {
+        MetricColumn[] metrics = new MetricColumn[metricCount];
+        for (int m = 0; m < metricCount; m++) {
+            metrics[m] = new MetricColumn(0);
+        }
+        AttributeColumn[] attributes = new AttributeColumn[dictionaries.length];
+        for (int a = 0; a < dictionaries.length; a++) {
+            attributes[a] = new AttributeColumn(0, dictionaries[a]);
+        }
+        return new ResultPageBuffer(rowOffset, 0, rowOffset, metrics, attributes);
+    }
+
+    public int getRowOffset() {
+        return this.rowOffset;
+    }
+
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    public int getTotalRows() {
+        return this.totalRows;
+    }
+
+    /**
+     * Row after the last row of the page
+     * @return row index
+     */
+    public int getMaxRow() {
+        return this.rowOffset + this.rowCount;
+    }
+
+    /**
+     * Tells whether the row (zero based index within the whole AFM result) is in this page
+     * @param row row index
+     * @return true if the page contains the row
+     */
+    public boolean contains(int row) {
+        return row >= this.rowOffset && row < this.rowOffset + this.rowCount;
+    }
+
+    /**
+     * Rough estimate of the heap occupied by the page
+     * @return size in bytes
+     */
+    public long estimateHeapSize() {
+        if (this.heapSize < 0) {
+            long size = 64;
+            for (MetricColumn m : this.metrics) {
+                size += m.estimateHeapSize(this.rowCount);
+            }
+            for (AttributeColumn a : this.attributes) {
+                size += a.estimateHeapSize(this.rowCount);
+            }
+            this.heapSize = size;
+        }
+        return this.heapSize;
+    }
+
+    /**
+     * Writes the page in the compact binary column layout
+     * [rowOffset, rowCount, totalRows, metricCount, attributeCount, metric columns..., attribute columns...]
+     * @param out output stream
+     * @throws IOException in case of write failure
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(this.rowOffset);
+        out.writeInt(this.rowCount);
+        out.writeInt(this.totalRows);
+        out.writeInt(this.metrics.length);
+        out.writeInt(this.attributes.length);
+        for (MetricColumn m : this.metrics) {
+            m.writeTo(out, this.rowCount);
+        }
+        for (AttributeColumn a : this.attributes) {
+            a.writeTo(out, this.rowCount);
+        }
+    }
+
+    /**
+     * Reads the page written by writeTo
+     * @param in buffer positioned at the page start
+     * @param dictionaries attribute value dictionaries the page was encoded with
+     * @return decoded page
+     */
+    public static ResultPageBuffer readFrom(ByteBuffer in, AttributeDictionary[] dictionaries) {
+        int rowOffset = in.getInt();
+        int rowCount = in.getInt();
+        int totalRows = in.getInt();
+        MetricColumn[] metrics = new MetricColumn[in.getInt()];
+        AttributeColumn[] attributes = new AttributeColumn[in.getInt()];
+        for (int m = 0; m < metrics.length; m++) {
+            metrics[m] = MetricColumn.readFrom(in, rowCount);
+        }
+        for (int a = 0; a < attributes.length; a++) {
+            attributes[a] = AttributeColumn.readFrom(in, rowCount, dictionaries[a]);
+        }
+        return new ResultPageBuffer(rowOffset, rowCount, totalRows, metrics, attributes);
+    }
+
+    public MetricColumn getMetric(int position) {
+        return this.metrics[position];
+    }
+
+    public AttributeColumn getAttribute(int position) {
+        return this.attributes[position];
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.gooddata.jdbc.resultset;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Bounded LRU cache of the decoded result pages keyed by their first row.
+ * Lets the scrollable ResultSet move the cursor back without refetching the pages.
+ * When the heap budget is set, the pages evicted from the heap are spilled to the temp file
+ * instead of being dropped.
+ */
+public class ResultPageCache {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultPageCache.class.getName());
+
+    private final int maxPages;
+    // max heap occupied by the cached pages (0 disables the spill)
+    private final long heapBudget;
+    // directory of the spill file
+    private final Path spillDirectory;
+    // attribute dictionaries used to read back the spilled pages
+    private final AttributeDictionary[] dictionaries;
+    // access ordered, the eldest entry is the least recently used page
+    private final LinkedHashMap<Integer, ResultPageBuffer> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private ResultPageSpillFile spillFile;
+    private long heapSize = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructor
+     * @param maxPages max number of cached pages (0 disables the cache)
+     */
+    public ResultPageCache(int maxPages) {
+        this(maxPages, 0, null, null);
+    }
+
+    /**
+     * Constructor
+     * @param maxPages max number of pages cached on heap (0 disables the cache)
+     * @param heapBudget max heap occupied by the cached pages in bytes (0 disables the spill)
+     * @param spillDirectory directory of the spill file
+     * @param dictionaries attribute dictionaries used to read back the spilled pages
+     */
+    public ResultPageCache(int maxPages, long heapBudget, Path spillDirectory, AttributeDictionary[] dictionaries) {
+        this.maxPages = maxPages;
+        this.heapBudget = heapBudget;
+        this.spillDirectory = spillDirectory;
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * Looks up the cached or spilled page that contains the row
+     * @param rowIndex row index
+     * @return the page or null if no cached page contains the row
+     */
+    public synchronized ResultPageBuffer get(int rowIndex) {
+        for (ResultPageBuffer page : this.pages.values()) {
+            if (page.contains(rowIndex)) {
+                // touches the entry to move it to the most recently used position
+                this.pages.get(page.getRowOffset());
+                this.hits++;
+                return page;
+            }
+        }
+        ResultPageBuffer spilled = this.readSpilled(rowIndex);
+        if (spilled != null) {
+            this.hits++;
+            this.put(spilled);
+            return spilled;
+        }
+        this.misses++;
+        return null;
+    }
+
+    /**
+     * Tells whether a cached or spilled page contains the row, doesn't count as a cache hit or miss
+     * @param rowIndex row index
+     * @return true if the row is cached
+     */
+    public synchronized boolean contains(int rowIndex) {
+        for (ResultPageBuffer page : this.pages.values()) {
+            if (page.contains(rowIndex))
+                return true;
+        }
+        return this.spillFile != null && this.spillFile.contains(rowIndex);
+    }
+
+    /**
+     * Caches the page, evicts the least recently used pages over the limits
+     * @param page decoded page
+     */
+    public synchronized void put(ResultPageBuffer page) {
+        if (this.maxPages <= 0)
+            return;
+        ResultPageBuffer replaced = this.pages.put(page.getRowOffset(), page);
+        if (replaced != null)
+            this.heapSize -= replaced.estimateHeapSize();
+        this.heapSize += page.estimateHeapSize();
+        Iterator<Map.Entry<Integer, ResultPageBuffer>> i = this.pages.entrySet().iterator();
+        while ((this.pages.size() > this.maxPages || this.isOverBudget()) && i.hasNext()) {
+            ResultPageBuffer evicted = i.next().getValue();
+            i.remove();
+            this.heapSize -= evicted.estimateHeapSize();
+            this.evictions++;
+            if (this.isSpillEnabled())
+                this.spill(evicted);
+        }
+    }
+
+    private boolean isSpillEnabled() {
+        return this.heapBudget > 0;
+    }
+
+    private boolean isOverBudget() {
+        // the most recently used page stays on heap even if it alone exceeds the budget
+        return this.isSpillEnabled() && this.heapSize > this.heapBudget && this.pages.size() > 1;
+    }
+
+    private void spill(ResultPageBuffer page) {
+        try {
+            if (this.spillFile == null)
+                this.spillFile = new ResultPageSpillFile(this.spillDirectory);
+            this.spillFile.write(page);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Spilling of the result page offset='%d' failed, the page will be " +
+                    "refetched: %s", page.getRowOffset(), e.getMessage()));
+        }
+    }
+
+    private ResultPageBuffer readSpilled(int rowIndex) {
+        if (this.spillFile == null)
+            return null;
+        try {
+            return this.spillFile.read(rowIndex, this.dictionaries);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Reading of the spilled row '%d' failed, the page will be refetched: %s",
+                    rowIndex, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Drops all cached pages
+     */
+    public synchronized void clear() {
+        this.pages.clear();
+        this.heapSize = 0;
+    }
+
+    /**
+     * Drops all cached pages and deletes the spill file
+     */
+    public synchronized void close() {
+        this.clear();
+        if (this.spillFile != null) {
+            this.spillFile.close();
+            this.spillFile = null;
+        }
+    }
+
+    public int getMaxPages() {
+        return this.maxPages;
+    }
+
+    public long getHeapBudget() {
+        return this.heapBudget;
+    }
+
+    public synchronized int size() {
+        return this.pages.size();
+    }
+
+    public synchronized long getHeapSize() {
+        return this.heapSize;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Spill file of the pages evicted from the heap
+     * @return the spill file or null if nothing was spilled
+     */
+    public synchronized ResultPageSpillFile getSpillFile() {
+        return this.spillFile;
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.gooddata.jdbc.resultset;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Requests AFM result pages ahead of the ResultSet cursor on a background executor
+ */
+public class ResultPagePrefetcher {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultPagePrefetcher.class.getName());
+
+    /**
+     * Loads and decodes one result page
+     */
+    public interface PageLoader {
+
+        /**
+         * Loads the result page
+         * @param rowOffset first row of the page
+         * @param limit max number of rows in the page
+         * @return decoded page
+         * @throws SQLException when the page can't be loaded
+         */
+        ResultPageBuffer load(int rowOffset, int limit) throws SQLException;
+    }
+
+    /**
+     * Result page requested in background
+     */
+    private static class PendingPage {
+
+        private final int limit;
+        private final Future<ResultPageBuffer> result;
+
+        PendingPage(int limit, Future<ResultPageBuffer> result) {
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+
+    // Loads the pages from the AFM execution
+    private final PageLoader loader;
+    // Background executor
+    private final ExecutorService executor;
+    // Max number of pages requested ahead
+    private final int depth;
+    // Requested pages by their first row
+    private final TreeMap<Integer, PendingPage> pages = new TreeMap<>();
+    private boolean isCancelled = false;
+
+    /**
+     * Constructor
+     * @param loader page loader
+     * @param executor background executor
+     * @param depth max number of pages requested ahead
+     */
+    public ResultPagePrefetcher(PageLoader loader, ExecutorService executor, int depth) {
+        this.loader = loader;
+        this.executor = executor;
+        this.depth = depth;
+    }
+
+    /**
+     * Requests up to depth pages starting at the rowOffset
+     * @param rowOffset first row of the first requested page
+     * @param pageSize rows per page
+     * @param endRow row after the last row to prefetch, the last page is trimmed to it
+     */
+    public synchronized void prefetch(int rowOffset, int pageSize, int endRow) {
+        if (this.isCancelled || this.depth <= 0 || pageSize <= 0)
+            return;
+        int next = rowOffset;
+        for (int i = 0; i < this.depth; i++) {
+            final int offset = next;
+            if (offset >= endRow)
+                break;
+            PendingPage pending = this.pages.get(offset);
+            if (pending != null) {
+                // the page may have been requested with a different page size
+                next += pending.limit;
+                continue;
+            }
+            final int limit = Math.min(pageSize, endRow - offset);
+            next += limit;
+            LOGGER.fine(String.format("Prefetching result page offset='%d', limit='%d'", offset, limit));
+            this.pages.put(offset, new PendingPage(limit, this.executor.submit(
+                    () -> this.loader.load(offset, limit))));
+        }
+    }
+
+    /**
+     * Takes the prefetched page that contains the row. Waits if the page is still being fetched.
+     * Pages before the row are discarded.
+     * @param rowIndex row index
+     * @return decoded page or null if no prefetched page contains the row
+     * @throws SQLException when the background fetch failed
+     */
+    public ResultPageBuffer take(int rowIndex) throws SQLException {
+        PendingPage pending = null;
+        synchronized (this) {
+            Iterator<Map.Entry<Integer, PendingPage>> i = this.pages.entrySet().iterator();
+            while (i.hasNext()) {
+                Map.Entry<Integer, PendingPage> e = i.next();
+                int start = e.getKey();
+                if (start > rowIndex)
+                    break;
+                i.remove();
+                if (rowIndex < start + e.getValue().limit) {
+                    pending = e.getValue();
+                    break;
+                }
+                e.getValue().result.cancel(true);
+            }
+        }
+        if (pending == null)
+            return null;
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the prefetched result page.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException)
+                throw (SQLException) e.getCause();
+            throw new SQLException("Prefetching of the result page failed.", e.getCause());
+        } catch (CancellationException e) {
+            throw new SQLException("Prefetching of the result page was cancelled.", e);
+        }
+    }
+
+    /**
+     * Cancels all pending page requests. No further pages are prefetched.
+     */
+    public synchronized void cancel() {
+        this.isCancelled = true;
+        for (PendingPage p : this.pages.values()) {
+            p.result.cancel(true);
+        }
+        this.pages.clear();
+    }
+
+}
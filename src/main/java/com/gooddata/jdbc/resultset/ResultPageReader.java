@@ -0,0 +1,25 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+
+import java.sql.SQLException;
+
+/**
+ * Reads and decodes one page of the AFM execution result
+ */
+public interface ResultPageReader {
+
+    /**
+     * Reads the result page
+     * @param response AFM execution response
+     * @param page requested page window
+     * @param metricCount number of metrics in the AFM
+     * @param dictionaries attribute value dictionaries shared across pages, one per AFM attribute
+     * @return decoded page
+     * @throws SQLException when the page can't be read
+     */
+    ResultPageBuffer read(ExecutionResponse response, ResultPage page, int metricCount,
+                          AttributeDictionary[] dictionaries) throws SQLException;
+
+}
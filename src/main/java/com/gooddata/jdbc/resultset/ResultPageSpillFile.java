@@ -0,0 +1,192 @@
+package com.gooddata.jdbc.resultset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Temp file holding the decoded result pages that don't fit to the heap budget.
+ * Pages are appended in the compact binary column layout and read back to a reused heap buffer,
+ * no mapping of the file outlives the read, so the file is deleted on close and on the JVM shutdown.
+ */
+public class ResultPageSpillFile {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultPageSpillFile.class.getName());
+
+    // Spill files that haven't been closed yet, deleted by the shutdown hook
+    private static final Set<ResultPageSpillFile> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (ResultPageSpillFile f : OPEN_FILES) {
+                f.close();
+            }
+        }, "gdjdbc-spill-cleanup"));
+    }
+
+    /**
+     * Location of the spilled page in the file
+     */
+    private static class SpilledPage {
+
+        private final long position;
+        private final int length;
+        private final int rowCount;
+
+        SpilledPage(long position, int length, int rowCount) {
+            this.position = position;
+            this.length = length;
+            this.rowCount = rowCount;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    // Spilled pages by their first row
+    private final TreeMap<Integer, SpilledPage> pages = new TreeMap<>();
+    private long size = 0;
+    // read back buffer, grown to the largest read page
+    private ByteBuffer readBuffer = ByteBuffer.allocate(0);
+    private long writeNanos = 0;
+    private long reads = 0;
+    private long readNanos = 0;
+    private boolean isClosed = false;
+
+    /**
+     * Creates new spill file in the directory
+     * @param directory spill directory
+     * @throws IOException when the file can't be created
+     */
+    public ResultPageSpillFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.path = Files.createTempFile(directory, "resultset-", ".spill");
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OPEN_FILES.add(this);
+        LOGGER.info(String.format("Created result spill file '%s'", this.path));
+    }
+
+    /**
+     * Appends the page to the file
+     * @param page decoded page
+     * @throws IOException in case of write failure
+     */
+    public synchronized void write(ResultPageBuffer page) throws IOException {
+        if (this.pages.containsKey(page.getRowOffset()))
+            return;
+        long start = System.nanoTime();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        page.writeTo(out);
+        out.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long position = this.size;
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer, position + buffer.position());
+        }
+        this.size += buffer.limit();
+        this.pages.put(page.getRowOffset(), new SpilledPage(position, buffer.limit(), page.getRowCount()));
+        this.writeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Tells whether a spilled page contains the row
+     * @param rowIndex row index
+     * @return true if the row was spilled
+     */
+    public synchronized boolean contains(int rowIndex) {
+        return this.find(rowIndex) != null;
+    }
+
+    /**
+     * Reads back the spilled page that contains the row
+     * @param rowIndex row index
+     * @param dictionaries attribute value dictionaries the page was encoded with
+     * @return decoded page or null if no spilled page contains the row
+     * @throws IOException in case of read failure
+     */
+    public synchronized ResultPageBuffer read(int rowIndex, AttributeDictionary[] dictionaries) throws IOException {
+        SpilledPage p = this.find(rowIndex);
+        if (p == null)
+            return null;
+        long start = System.nanoTime();
+        if (this.readBuffer.capacity() < p.length)
+            this.readBuffer = ByteBuffer.allocate(p.length);
+        ByteBuffer buffer = this.readBuffer;
+        buffer.clear();
+        buffer.limit(p.length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, p.position + buffer.position()) < 0)
+                throw new EOFException(String.format("The result spill file '%s' is truncated.", this.path));
+        }
+        buffer.flip();
+        // the page is decoded to its own arrays, the buffer is reused by the next read
+        ResultPageBuffer page = ResultPageBuffer.readFrom(buffer, dictionaries);
+        this.reads++;
+        this.readNanos += System.nanoTime() - start;
+        return page;
+    }
+
+    private SpilledPage find(int rowIndex) {
+        Map.Entry<Integer, SpilledPage> e = this.pages.floorEntry(rowIndex);
+        if (e != null && rowIndex < e.getKey() + e.getValue().rowCount)
+            return e.getValue();
+        return null;
+    }
+
+    /**
+     * Closes and deletes the file, logs the spill statistics
+     */
+    public synchronized void close() {
+        if (this.isClosed)
+            return;
+        this.isClosed = true;
+        OPEN_FILES.remove(this);
+        LOGGER.info(String.format("Result spill file '%s' closed: spilled pages='%d', bytes='%d', write ms='%d', " +
+                        "read back pages='%d', read ms='%d'", this.path, this.pages.size(), this.size,
+                this.writeNanos / 1000000, this.reads, this.readNanos / 1000000));
+        try {
+            this.channel.close();
+            Files.deleteIfExists(this.path);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Can't delete the result spill file '%s': %s", this.path, e.getMessage()));
+        }
+        this.pages.clear();
+        this.readBuffer = ByteBuffer.allocate(0);
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    public synchronized int getSpilledPages() {
+        return this.pages.size();
+    }
+
+    public synchronized long getSpilledBytes() {
+        return this.size;
+    }
+
+    public synchronized long getWriteMillis() {
+        return this.writeNanos / 1000000;
+    }
+
+    public synchronized long getReads() {
+        return this.reads;
+    }
+
+    public synchronized long getReadMillis() {
+        return this.readNanos / 1000000;
+    }
+
+}
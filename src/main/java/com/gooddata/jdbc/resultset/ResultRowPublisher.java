@@ -0,0 +1,157 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.util.Flow;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Publishes the rows of the AfmResultSet with the backpressure. Rows are read and decoded on the executor
+ * only while the subscriber has an outstanding demand, so the result pages are fetched as the subscriber
+ * requests the rows. Cancelling the subscription closes the ResultSet, no further pages are fetched.
+ * The ResultSet rows can be published to a single subscriber.
+ */
+public class ResultRowPublisher implements Flow.Publisher<Object[]> {
+
+    private final static Logger LOGGER = Logger.getLogger(ResultRowPublisher.class.getName());
+
+    private final AfmResultSet resultSet;
+    private final Executor executor;
+    private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     * @param resultSet published ResultSet, the publisher moves its cursor and closes it
+     * @param executor executor of the row reading and delivery
+     */
+    public ResultRowPublisher(AfmResultSet resultSet, Executor executor) {
+        this.resultSet = resultSet;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Object[]> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!this.isSubscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The ResultSet rows are already published."));
+            return;
+        }
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    /**
+     * Subscription that reads the rows in a serialized drain loop on the executor
+     */
+    private class RowSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Object[]> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // number of the signals not processed by the drain loop yet
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean isCancelled = false;
+        private volatile Throwable requestError;
+        // accessed by the drain loop only
+        private boolean isTerminated = false;
+
+        RowSubscription(Flow.Subscriber<? super Object[]> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.requestError = new IllegalArgumentException(
+                        String.format("The requested number of rows '%d' isn't positive.", n));
+            } else {
+                // the demand saturates at Long.MAX_VALUE
+                this.demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            }
+            this.signal();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void cancel() {
+            this.isCancelled = true;
+            this.signal();
+        }
+
+        private void signal() {
+            if (this.pending.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                this.drain();
+                missed = this.pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (this.isTerminated)
+                return;
+            try {
+                while (!this.isCancelled && this.requestError == null && this.demand.get() > 0) {
+                    if (!resultSet.next()) {
+                        this.terminate();
+                        this.subscriber.onComplete();
+                        return;
+                    }
+                    Object[] row = this.readRow();
+                    if (this.demand.get() != Long.MAX_VALUE)
+                        this.demand.decrementAndGet();
+                    this.subscriber.onNext(row);
+                }
+                if (this.requestError != null) {
+                    this.terminate();
+                    this.subscriber.onError(this.requestError);
+                } else if (this.isCancelled) {
+                    LOGGER.fine("Row subscription cancelled");
+                    this.terminate();
+                }
+            } catch (SQLException | RuntimeException e) {
+                this.terminate();
+                this.subscriber.onError(e);
+            }
+        }
+
+        private Object[] readRow() throws SQLException {
+            Object[] row = new Object[resultSet.getMetaData().getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            return row;
+        }
+
+        private void terminate() {
+            this.isTerminated = true;
+            resultSet.close();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
+import com.gooddata.sdk.service.FutureResult;
+import com.gooddata.sdk.service.executeafm.ExecuteAfmService;
+
+import java.sql.SQLException;
+
+/**
+ * Reads the result page through the SDK AFM service and decodes its ExecutionResult object model
+ */
+public class SdkResultPageReader implements ResultPageReader {
+
+    private final ExecuteAfmService gdAfm;
+    private final QueryControl control;
+
+    /**
+     * Constructor
+     * @param gdAfm GD AFM execution service
+     */
+    public SdkResultPageReader(ExecuteAfmService gdAfm) {
+        this(gdAfm, QueryControl.none());
+    }
+
+    /**
+     * Constructor
+     * @param gdAfm GD AFM execution service
+     * @param control query timeout and cancellation
+     */
+    public SdkResultPageReader(ExecuteAfmService gdAfm, QueryControl control) {
+        this.gdAfm = gdAfm;
+        this.control = control;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPageBuffer read(ExecutionResponse response, ResultPage page, int metricCount,
+                                 AttributeDictionary[] dictionaries) throws SQLException {
+        this.control.check(Long.MAX_VALUE);
+        FutureResult<ExecutionResult> fr = this.gdAfm.getResult(response, page);
+        return ResultPageBuffer.decode(this.control.await(fr), metricCount, dictionaries);
+    }
+
+}
@@ -0,0 +1,335 @@
+package com.gooddata.jdbc.resultset;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gooddata.sdk.common.GoodDataException;
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the result page with the streaming JSON parser. Cell values are written straight to the
+ * columnar page buffer without building the SDK ExecutionResult object model.
+ */
+public class StreamingResultPageReader implements ResultPageReader {
+
+    private final static Logger LOGGER = Logger.getLogger(StreamingResultPageReader.class.getName());
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final RestTemplate restTemplate;
+    private final QueryControl control;
+
+    /**
+     * Constructor
+     * @param restTemplate authenticated GD REST template
+     */
+    public StreamingResultPageReader(RestTemplate restTemplate) {
+        this(restTemplate, QueryControl.none());
+    }
+
+    /**
+     * Constructor
+     * @param restTemplate authenticated GD REST template
+     * @param control query timeout and cancellation
+     */
+    public StreamingResultPageReader(RestTemplate restTemplate, QueryControl control) {
+        this.restTemplate = restTemplate;
+        this.control = control;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPageBuffer read(ExecutionResponse response, ResultPage page, int metricCount,
+                                 AttributeDictionary[] dictionaries) throws SQLException {
+        URI uri = getPageUri(response.getExecutionResultUri(), page);
+        int rowOffset = page.getOffsets().get(0);
+        int limit = page.getLimits().get(0);
+        LOGGER.fine(String.format("Streaming result page uri='%s'", uri));
+        long deadline = this.control.getDeadline();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                this.control.backoff(deadline, attempt);
+                ResultPageBuffer buffer = this.restTemplate.execute(uri, HttpMethod.GET,
+                        request -> request.getHeaders().setAccept(
+                                Collections.singletonList(MediaType.APPLICATION_JSON)),
+                        r -> {
+                            if (r.getStatusCode() == HttpStatus.ACCEPTED)
+                                return null;
+                            if (r.getStatusCode() == HttpStatus.NO_CONTENT)
+                                return parse(null, rowOffset, 0, metricCount, dictionaries);
+                            return parse(r.getBody(), rowOffset, limit, metricCount, dictionaries);
+                        });
+                if (this.control.recordPoll(buffer != null))
+                    return buffer;
+            }
+        } catch (RestClientException | GoodDataException e) {
+            throw new SQLException(String.format("Streaming of the result page '%s' failed.", uri), e);
+        }
+    }
+
+    /**
+     * Result page URI with the page window parameters
+     * @param executionResultUri execution result URI
+     * @param page page window
+     * @return page URI
+     */
+    static URI getPageUri(String executionResultUri, ResultPage page) {
+        return URI.create(executionResultUri
+                + (executionResultUri.contains("?") ? "&" : "?")
+                + "offset=" + join(page.getOffsets())
+                + "&limit=" + join(page.getLimits()));
+    }
+
+    private static String join(List<Integer> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Parses the executionResult JSON body into the page buffer
+     * @param body response body (null for no content)
+     * @param rowOffset first row of the requested page
+     * @param limit max number of rows in the page
+     * @param metricCount number of metrics in the AFM
+     * @param dictionaries attribute value dictionaries shared across pages
+     * @return decoded page with the columns of the returned row count
+     * @throws IOException when the body isn't a valid execution result
+     */
+    static ResultPageBuffer parse(InputStream body, int rowOffset, int limit, int metricCount,
+                                  AttributeDictionary[] dictionaries) throws IOException {
+        if (body == null)
+            return new ResultPageBuffer(rowOffset, 0, 0, createMetrics(metricCount, 0),
+                    createAttributes(dictionaries, 0));
+
+        // [count, offset, total] of the first dimension
+        int[] paging = null;
+        ResultPageBuffer.MetricColumn[] metrics = null;
+        ResultPageBuffer.AttributeColumn[] attributes = null;
+        int dataRows = 0;
+        int[] headerRows = new int[dictionaries.length];
+        try (JsonParser p = JSON_FACTORY.createParser(body)) {
+            expect(p, p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                if (!"executionResult".equals(field)) {
+                    p.skipChildren();
+                    continue;
+                }
+                expect(p, p.currentToken(), JsonToken.START_OBJECT);
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String resultField = p.getCurrentName();
+                    JsonToken t = p.nextToken();
+                    // the columns are sized by the paging when it precedes the rows, by the limit otherwise
+                    int capacity = paging != null ? Math.min(paging[0], limit) : limit;
+                    if ("data".equals(resultField) && t == JsonToken.START_ARRAY && metrics == null) {
+                        metrics = createMetrics(metricCount, capacity);
+                        dataRows = parseData(p, capacity, metrics);
+                    } else if ("headerItems".equals(resultField) && t == JsonToken.START_ARRAY
+                            && attributes == null) {
+                        attributes = createAttributes(dictionaries, capacity);
+                        parseHeaders(p, capacity, attributes, headerRows);
+                    } else if ("paging".equals(resultField) && t == JsonToken.START_OBJECT) {
+                        paging = parsePaging(p);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            }
+        }
+        if (paging == null)
+            throw new IOException("The execution result doesn't contain paging.");
+        int rowCount = paging[0];
+        boolean isValid = rowCount >= 0 && rowCount <= limit && (metricCount == 0 || dataRows == rowCount);
+        for (int rows : headerRows) {
+            isValid &= rows == rowCount;
+        }
+        if (!isValid)
+            throw new IOException(String.format("The execution result page has unexpected number of rows '%d'.",
+                    rowCount));
+        if (metrics == null)
+            metrics = createMetrics(metricCount, rowCount);
+        for (int m = 0; m < metrics.length; m++) {
+            metrics[m] = metrics[m].trim(rowCount);
+        }
+        if (attributes == null)
+            attributes = createAttributes(dictionaries, rowCount);
+        for (int a = 0; a < attributes.length; a++) {
+            attributes[a] = attributes[a].trim(rowCount);
+        }
+        return new ResultPageBuffer(paging[1], rowCount, paging[2], metrics, attributes);
+    }
+
+    private static ResultPageBuffer.MetricColumn[] createMetrics(int metricCount, int rowCount) {
+        ResultPageBuffer.MetricColumn[] metrics = new ResultPageBuffer.MetricColumn[metricCount];
+        for (int m = 0; m < metricCount; m++) {
+            metrics[m] = new ResultPageBuffer.MetricColumn(rowCount);
+        }
+        return metrics;
+    }
+
+    private static ResultPageBuffer.AttributeColumn[] createAttributes(AttributeDictionary[] dictionaries,
+                                                                       int rowCount) {
+        ResultPageBuffer.AttributeColumn[] attributes = new ResultPageBuffer.AttributeColumn[dictionaries.length];
+        for (int a = 0; a < dictionaries.length; a++) {
+            attributes[a] = new ResultPageBuffer.AttributeColumn(rowCount, dictionaries[a]);
+        }
+        return attributes;
+    }
+
+    private static int parseData(JsonParser p, int capacity, ResultPageBuffer.MetricColumn[] metrics)
+            throws IOException {
+        int row = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (row >= capacity)
+                throw new IOException("The execution result page contains more rows than expected.");
+            if (t == JsonToken.START_ARRAY) {
+                int m = 0;
+                JsonToken v;
+                while ((v = p.nextToken()) != JsonToken.END_ARRAY) {
+                    if (m < metrics.length)
+                        setMetric(metrics[m], row, v == JsonToken.VALUE_NULL ? null : p.getText());
+                    else
+                        p.skipChildren();
+                    m++;
+                }
+                for (; m < metrics.length; m++) {
+                    setMetric(metrics[m], row, null);
+                }
+            } else if (t == JsonToken.VALUE_NULL) {
+                for (ResultPageBuffer.MetricColumn metric : metrics) {
+                    setMetric(metric, row, null);
+                }
+            } else if (t.isScalarValue()) {
+                if (metrics.length > 0)
+                    setMetric(metrics[0], row, p.getText());
+            } else {
+                throw new IOException(String.format("Invalid data token '%s'.", t));
+            }
+            row++;
+        }
+        return row;
+    }
+
+    private static void setMetric(ResultPageBuffer.MetricColumn metric, int row, String value) throws IOException {
+        try {
+            metric.set(row, value);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void parseHeaders(JsonParser p, int capacity, ResultPageBuffer.AttributeColumn[] attributes,
+                                     int[] headerRows) throws IOException {
+        int dimension = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            // attributes are in the first dimension, the second one holds the measure group
+            if (dimension++ > 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            int a = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (a >= attributes.length || p.currentToken() != JsonToken.START_ARRAY) {
+                    p.skipChildren();
+                    a++;
+                    continue;
+                }
+                int row = 0;
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (row >= capacity)
+                        throw new IOException("The execution result page contains more headers than expected.");
+                    attributes[a].set(row++, parseHeaderName(p));
+                }
+                headerRows[a++] = row;
+            }
+        }
+    }
+
+    /**
+     * Reads the name of the header item like {"attributeHeaderItem":{"name":"...","uri":"..."}}
+     * @param p parser positioned at the header item start
+     * @return header name
+     * @throws IOException in case of invalid JSON
+     */
+    private static String parseHeaderName(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        String name = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken t = p.nextToken();
+                if ("name".equals(field) && t != JsonToken.VALUE_NULL)
+                    name = p.getText();
+                else
+                    p.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    private static int[] parsePaging(JsonParser p) throws IOException {
+        int[] paging = new int[3];
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            switch (field) {
+                case "count":
+                    paging[0] = parseFirstInt(p);
+                    break;
+                case "offset":
+                    paging[1] = parseFirstInt(p);
+                    break;
+                case "total":
+                    paging[2] = parseFirstInt(p);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return paging;
+    }
+
+    private static int parseFirstInt(JsonParser p) throws IOException {
+        expect(p, p.currentToken(), JsonToken.START_ARRAY);
+        int value = 0;
+        boolean first = true;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (first)
+                value = p.getIntValue();
+            first = false;
+        }
+        return value;
+    }
+
+    private static void expect(JsonParser p, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected)
+            throw new IOException(String.format("Invalid execution result JSON, expected '%s' but got '%s' at %s.",
+                    expected, actual, p.getCurrentLocation()));
+    }
+
+}
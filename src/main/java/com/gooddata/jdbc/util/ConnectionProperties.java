@@ -0,0 +1,344 @@
+package com.gooddata.jdbc.util;
+
+import java.sql.DriverPropertyInfo;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Typed access to the JDBC connection properties that tune the driver
+ */
+public class ConnectionProperties {
+
+    private final static Logger LOGGER = Logger.getLogger(ConnectionProperties.class.getName());
+
+    // Number of result pages requested ahead of the cursor (0 disables the prefetch)
+    public static final String PREFETCH_DEPTH = "prefetchDepth";
+    // Fraction of the current page that the cursor must pass before the next pages are requested
+    public static final String PREFETCH_WATERMARK = "prefetchWatermark";
+    // Number of worker threads fetching the result pages in parallel (1 disables the parallel fetch)
+    public static final String PARALLEL_FETCH_THREADS = "parallelFetchThreads";
+    // Max number of result pages being fetched or waiting for the cursor in the parallel fetch
+    public static final String PARALLEL_FETCH_WINDOW = "parallelFetchWindow";
+    // Max number of distinct values kept in the per-column attribute dictionary of a ResultSet
+    public static final String ATTRIBUTE_DICTIONARY_SIZE = "attributeDictionarySize";
+    // Decode the result pages with the streaming JSON parser instead of the SDK object model
+    public static final String STREAMING_PAGE_READER = "streamingPageReader";
+    // Max number of result pages kept by the scrollable ResultSet
+    public static final String PAGE_CACHE_SIZE = "pageCacheSize";
+    // Heap budget in MB of the pages cached by the scrollable ResultSet, pages over it are spilled to disk
+    public static final String SPILL_HEAP_BUDGET_MB = "spillHeapBudgetMb";
+    // Adjust the result page size from page to page by the measured latency and payload size
+    public static final String ADAPTIVE_PAGE_SIZE = "adaptivePageSize";
+    // Min and max rows of the adaptive page
+    public static final String ADAPTIVE_PAGE_MIN_ROWS = "adaptivePageMinRows";
+    public static final String ADAPTIVE_PAGE_MAX_ROWS = "adaptivePageMaxRows";
+    // Target response time of the adaptive page
+    public static final String ADAPTIVE_PAGE_TARGET_MS = "adaptivePageTargetMs";
+    // Memory ceiling in MB of the decoded adaptive page
+    public static final String ADAPTIVE_PAGE_MAX_MB = "adaptivePageMaxMb";
+    // Time to live of the results in the driver-wide result cache (0 disables the result cache)
+    public static final String RESULT_CACHE_TTL_SECONDS = "resultCacheTtlSeconds";
+    // Max number of results in the driver-wide result cache
+    public static final String RESULT_CACHE_MAX_ENTRIES = "resultCacheMaxEntries";
+    // Max number of rows of a result stored in the result cache
+    public static final String RESULT_CACHE_MAX_ROWS = "resultCacheMaxRows";
+    // Time to live of the results in the persistent result cache under ~/.gdjdbc (0 disables the cache)
+    public static final String PERSISTENT_RESULT_CACHE_TTL_SECONDS = "persistentResultCacheTtlSeconds";
+    // Wait before the first poll of the execution result
+    public static final String POLL_INITIAL_DELAY_MS = "pollInitialDelayMs";
+    // Wait before the second poll, the next waits grow by the backoff multiplier up to the max interval
+    public static final String POLL_INTERVAL_MS = "pollIntervalMs";
+    public static final String POLL_BACKOFF_MULTIPLIER = "pollBackoffMultiplier";
+    public static final String POLL_MAX_INTERVAL_MS = "pollMaxIntervalMs";
+    // Random deviation of the wait between the polls as a fraction of the wait
+    public static final String POLL_JITTER = "pollJitter";
+    // Max number of parsed SELECT statements in the driver-wide parsed statement cache (0 disables the cache)
+    public static final String PARSED_SQL_CACHE_SIZE = "parsedSqlCacheSize";
+
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+    public static final double DEFAULT_PREFETCH_WATERMARK = 0.5;
+    public static final int DEFAULT_PARALLEL_FETCH_THREADS = 1;
+    public static final int DEFAULT_ATTRIBUTE_DICTIONARY_SIZE = 100000;
+    public static final boolean DEFAULT_STREAMING_PAGE_READER = false;
+    public static final int DEFAULT_PAGE_CACHE_SIZE = 16;
+    public static final int DEFAULT_SPILL_HEAP_BUDGET_MB = 0;
+    public static final boolean DEFAULT_ADAPTIVE_PAGE_SIZE = false;
+    public static final int DEFAULT_ADAPTIVE_PAGE_MIN_ROWS = 100;
+    public static final int DEFAULT_ADAPTIVE_PAGE_MAX_ROWS = 10000;
+    public static final int DEFAULT_ADAPTIVE_PAGE_TARGET_MS = 1000;
+    public static final int DEFAULT_ADAPTIVE_PAGE_MAX_MB = 16;
+    public static final int DEFAULT_RESULT_CACHE_TTL_SECONDS = 0;
+    public static final int DEFAULT_RESULT_CACHE_MAX_ENTRIES = 100;
+    public static final int DEFAULT_RESULT_CACHE_MAX_ROWS = 100000;
+    public static final int DEFAULT_PERSISTENT_RESULT_CACHE_TTL_SECONDS = 0;
+    public static final int DEFAULT_POLL_INITIAL_DELAY_MS = 0;
+    public static final int DEFAULT_POLL_INTERVAL_MS = 200;
+    public static final double DEFAULT_POLL_BACKOFF_MULTIPLIER = 1.5;
+    public static final int DEFAULT_POLL_MAX_INTERVAL_MS = 5000;
+    public static final double DEFAULT_POLL_JITTER = 0.2;
+    public static final int DEFAULT_PARSED_SQL_CACHE_SIZE = 256;
+
+    // Standard JDBC property with the login
+    private static final String USER = "user";
+
+    private final Properties properties;
+    // GD server host of the JDBC URL
+    private final String host;
+
+    /**
+     * Constructor
+     * @param properties JDBC connection properties
+     */
+    public ConnectionProperties(Properties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * Constructor
+     * @param properties JDBC connection properties
+     * @param host GD server host of the connection
+     */
+    public ConnectionProperties(Properties properties, String host) {
+        this.properties = properties != null ? properties : new Properties();
+        this.host = host != null ? host : "";
+    }
+
+    /**
+     * GD server host, the results of the result caches are scoped by the host and the login
+     * @return host, empty when unknown
+     */
+    public String getHost() {
+        return this.host;
+    }
+
+    /**
+     * Login of the connection, the results of the result caches are scoped by the host and the login
+     * @return login, empty when unknown
+     */
+    public String getLogin() {
+        return this.properties.getProperty(USER, "");
+    }
+
+    public int getPrefetchDepth() {
+        return Math.max(0, getInt(PREFETCH_DEPTH, DEFAULT_PREFETCH_DEPTH));
+    }
+
+    public double getPrefetchWatermark() {
+        return Math.min(1.0, Math.max(0.0, getDouble(PREFETCH_WATERMARK, DEFAULT_PREFETCH_WATERMARK)));
+    }
+
+    public int getParallelFetchThreads() {
+        return Math.max(1, getInt(PARALLEL_FETCH_THREADS, DEFAULT_PARALLEL_FETCH_THREADS));
+    }
+
+    public boolean isParallelFetch() {
+        return getParallelFetchThreads() > 1;
+    }
+
+    /**
+     * The parallel fetch window defaults to twice the number of the fetch threads
+     * @return max number of pages being fetched or waiting for the cursor
+     */
+    public int getParallelFetchWindow() {
+        return Math.max(getParallelFetchThreads(),
+                getInt(PARALLEL_FETCH_WINDOW, 2 * getParallelFetchThreads()));
+    }
+
+    public int getAttributeDictionarySize() {
+        return Math.max(0, getInt(ATTRIBUTE_DICTIONARY_SIZE, DEFAULT_ATTRIBUTE_DICTIONARY_SIZE));
+    }
+
+    public boolean isStreamingPageReader() {
+        return getBoolean(STREAMING_PAGE_READER, DEFAULT_STREAMING_PAGE_READER);
+    }
+
+    public int getPageCacheSize() {
+        return Math.max(0, getInt(PAGE_CACHE_SIZE, DEFAULT_PAGE_CACHE_SIZE));
+    }
+
+    /**
+     * Heap budget of the scrollable ResultSet page cache
+     * @return budget in bytes, 0 when the spill to disk is disabled
+     */
+    public long getSpillHeapBudget() {
+        return Math.max(0, getInt(SPILL_HEAP_BUDGET_MB, DEFAULT_SPILL_HEAP_BUDGET_MB)) * 1024L * 1024L;
+    }
+
+    public boolean isAdaptivePageSize() {
+        return getBoolean(ADAPTIVE_PAGE_SIZE, DEFAULT_ADAPTIVE_PAGE_SIZE);
+    }
+
+    public int getAdaptivePageMinRows() {
+        return Math.max(1, getInt(ADAPTIVE_PAGE_MIN_ROWS, DEFAULT_ADAPTIVE_PAGE_MIN_ROWS));
+    }
+
+    public int getAdaptivePageMaxRows() {
+        return Math.max(getAdaptivePageMinRows(), getInt(ADAPTIVE_PAGE_MAX_ROWS, DEFAULT_ADAPTIVE_PAGE_MAX_ROWS));
+    }
+
+    public long getAdaptivePageTargetMs() {
+        return Math.max(1, getInt(ADAPTIVE_PAGE_TARGET_MS, DEFAULT_ADAPTIVE_PAGE_TARGET_MS));
+    }
+
+    /**
+     * Memory ceiling of the decoded adaptive page
+     * @return size in bytes
+     */
+    public long getAdaptivePageMaxBytes() {
+        return Math.max(1, getInt(ADAPTIVE_PAGE_MAX_MB, DEFAULT_ADAPTIVE_PAGE_MAX_MB)) * 1024L * 1024L;
+    }
+
+    /**
+     * Time to live of the cached results
+     * @return TTL in milliseconds, 0 when the result cache is off
+     */
+    public long getResultCacheTtlMs() {
+        return Math.max(0, getInt(RESULT_CACHE_TTL_SECONDS, DEFAULT_RESULT_CACHE_TTL_SECONDS)) * 1000L;
+    }
+
+    public int getResultCacheMaxEntries() {
+        return Math.max(0, getInt(RESULT_CACHE_MAX_ENTRIES, DEFAULT_RESULT_CACHE_MAX_ENTRIES));
+    }
+
+    public int getResultCacheMaxRows() {
+        return Math.max(0, getInt(RESULT_CACHE_MAX_ROWS, DEFAULT_RESULT_CACHE_MAX_ROWS));
+    }
+
+    /**
+     * Time to live of the results in the persistent cache
+     * @return TTL in milliseconds, 0 when the persistent result cache is off
+     */
+    public long getPersistentResultCacheTtlMs() {
+        return Math.max(0, getInt(PERSISTENT_RESULT_CACHE_TTL_SECONDS,
+                DEFAULT_PERSISTENT_RESULT_CACHE_TTL_SECONDS)) * 1000L;
+    }
+
+    public long getPollInitialDelayMs() {
+        return Math.max(0, getInt(POLL_INITIAL_DELAY_MS, DEFAULT_POLL_INITIAL_DELAY_MS));
+    }
+
+    public long getPollIntervalMs() {
+        return Math.max(1, getInt(POLL_INTERVAL_MS, DEFAULT_POLL_INTERVAL_MS));
+    }
+
+    public double getPollBackoffMultiplier() {
+        return Math.max(1.0, getDouble(POLL_BACKOFF_MULTIPLIER, DEFAULT_POLL_BACKOFF_MULTIPLIER));
+    }
+
+    public long getPollMaxIntervalMs() {
+        return Math.max(getPollIntervalMs(), getInt(POLL_MAX_INTERVAL_MS, DEFAULT_POLL_MAX_INTERVAL_MS));
+    }
+
+    public double getPollJitter() {
+        return Math.min(1.0, Math.max(0.0, getDouble(POLL_JITTER, DEFAULT_POLL_JITTER)));
+    }
+
+    public int getParsedSqlCacheSize() {
+        return Math.max(0, getInt(PARSED_SQL_CACHE_SIZE, DEFAULT_PARSED_SQL_CACHE_SIZE));
+    }
+
+    /**
+     * Describes the supported properties for the DriverManager and tools like DBeaver
+     * @return property descriptions with the current values
+     */
+    public DriverPropertyInfo[] getPropertyInfo() {
+        return new DriverPropertyInfo[]{
+                propertyInfo(PREFETCH_DEPTH, getPrefetchDepth(),
+                        "Number of result pages requested ahead of the cursor (0 disables the prefetch)."),
+                propertyInfo(PREFETCH_WATERMARK, getPrefetchWatermark(),
+                        "Fraction of the current page the cursor passes before the next pages are requested."),
+                propertyInfo(PARALLEL_FETCH_THREADS, getParallelFetchThreads(),
+                        "Number of threads fetching the result pages in parallel (1 disables the parallel fetch)."),
+                propertyInfo(PARALLEL_FETCH_WINDOW, getParallelFetchWindow(),
+                        "Max number of result pages being fetched or waiting for the cursor in the parallel fetch."),
+                propertyInfo(ATTRIBUTE_DICTIONARY_SIZE, getAttributeDictionarySize(),
+                        "Max number of distinct attribute values kept per ResultSet column."),
+                propertyInfo(STREAMING_PAGE_READER, isStreamingPageReader(),
+                        "Decode the result pages with the streaming JSON parser instead of the SDK object model."),
+                propertyInfo(PAGE_CACHE_SIZE, getPageCacheSize(),
+                        "Max number of result pages kept by the TYPE_SCROLL_INSENSITIVE ResultSet."),
+                propertyInfo(SPILL_HEAP_BUDGET_MB, getSpillHeapBudget() / (1024 * 1024),
+                        "Heap budget in MB of the scrollable ResultSet pages, pages over it are spilled to disk " +
+                                "(0 disables the spill)."),
+                propertyInfo(ADAPTIVE_PAGE_SIZE, isAdaptivePageSize(),
+                        "Adjust the result page size by the measured latency and payload size."),
+                propertyInfo(ADAPTIVE_PAGE_MIN_ROWS, getAdaptivePageMinRows(),
+                        "Min number of rows of the adaptive result page."),
+                propertyInfo(ADAPTIVE_PAGE_MAX_ROWS, getAdaptivePageMaxRows(),
+                        "Max number of rows of the adaptive result page."),
+                propertyInfo(ADAPTIVE_PAGE_TARGET_MS, getAdaptivePageTargetMs(),
+                        "Target response time in milliseconds of the adaptive result page."),
+                propertyInfo(ADAPTIVE_PAGE_MAX_MB, getAdaptivePageMaxBytes() / (1024 * 1024),
+                        "Memory ceiling in MB of the decoded adaptive result page."),
+                propertyInfo(RESULT_CACHE_TTL_SECONDS, getResultCacheTtlMs() / 1000,
+                        "Time to live in seconds of the results in the driver-wide result cache " +
+                                "(0 disables the result cache)."),
+                propertyInfo(RESULT_CACHE_MAX_ENTRIES, getResultCacheMaxEntries(),
+                        "Max number of results in the driver-wide result cache."),
+                propertyInfo(RESULT_CACHE_MAX_ROWS, getResultCacheMaxRows(),
+                        "Max number of rows of a result stored in the result cache."),
+                propertyInfo(PERSISTENT_RESULT_CACHE_TTL_SECONDS, getPersistentResultCacheTtlMs() / 1000,
+                        "Time to live in seconds of the results in the persistent result cache " +
+                                "(0 disables the persistent result cache)."),
+                propertyInfo(POLL_INITIAL_DELAY_MS, getPollInitialDelayMs(),
+                        "Wait in milliseconds before the first poll of the execution result."),
+                propertyInfo(POLL_INTERVAL_MS, getPollIntervalMs(),
+                        "Wait in milliseconds before the second poll of the execution result."),
+                propertyInfo(POLL_BACKOFF_MULTIPLIER, getPollBackoffMultiplier(),
+                        "Growth of the wait from poll to poll (1 keeps the poll interval fixed)."),
+                propertyInfo(POLL_MAX_INTERVAL_MS, getPollMaxIntervalMs(),
+                        "Max wait in milliseconds between the polls of the execution result."),
+                propertyInfo(POLL_JITTER, getPollJitter(),
+                        "Random deviation of the wait between the polls as a fraction of the wait (0 to 1)."),
+                propertyInfo(PARSED_SQL_CACHE_SIZE, getParsedSqlCacheSize(),
+                        "Max number of parsed SELECT statements in the driver-wide cache (0 disables the cache).")
+        };
+    }
+
+    private static DriverPropertyInfo propertyInfo(String name, Object value, String description) {
+        DriverPropertyInfo info = new DriverPropertyInfo(name, String.valueOf(value));
+        info.description = description;
+        info.required = false;
+        return info;
+    }
+
+    private int getInt(String name, int defaultValue) {
+        String value = this.properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning(String.format("Invalid value '%s' of the connection property '%s'. Using default '%d'.",
+                    value, name, defaultValue));
+            return defaultValue;
+        }
+    }
+
+    private boolean getBoolean(String name, boolean defaultValue) {
+        String value = this.properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        if (value.trim().equalsIgnoreCase("true"))
+            return true;
+        if (value.trim().equalsIgnoreCase("false"))
+            return false;
+        LOGGER.warning(String.format("Invalid value '%s' of the connection property '%s'. Using default '%s'.",
+                value, name, defaultValue));
+        return defaultValue;
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        String value = this.properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning(String.format("Invalid value '%s' of the connection property '%s'. Using default '%s'.",
+                    value, name, defaultValue));
+            return defaultValue;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.gooddata.jdbc.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Driver owned thread pools for the background work (page prefetch etc.)
+ */
+public class DriverExecutors {
+
+    private static final ExecutorService BACKGROUND = Executors.newCachedThreadPool(
+            daemonThreadFactory("gdjdbc-background"));
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), daemonThreadFactory("gdjdbc-scheduler"));
+
+    static {
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Shared pool for the background result fetching
+     * @return executor service with daemon threads
+     */
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Shared scheduler of the short timed tasks like the async result polls. No thread waits
+     * between the polls, so a few threads serve many concurrent executions. The scheduled tasks
+     * don't block, they dispatch the HTTP requests of the polls to the background pool.
+     * @return scheduled executor service with daemon threads
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Creates pool with fixed number of daemon threads that terminate when idle
+     * @param threads number of threads
+     * @param prefix thread name prefix
+     * @return executor service, the caller is responsible for its shutdown
+     */
+    public static ExecutorService newBoundedPool(int threads, String prefix) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory(prefix));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Creates thread factory that produces named daemon threads, so the driver never blocks JVM shutdown
+     * @param prefix thread name prefix
+     * @return thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, String.format("%s-%d", prefix, counter.incrementAndGet()));
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+}
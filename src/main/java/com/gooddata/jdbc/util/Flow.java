@@ -0,0 +1,73 @@
+package com.gooddata.jdbc.util;
+
+/**
+ * Reactive streams interfaces with the backpressure, the same contract as java.util.concurrent.Flow
+ * of Java 9+ (the driver targets Java 8). Subscribers are adapted to the JDK or other reactive
+ * libraries by simple delegation.
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    /**
+     * Producer of the items received by the subscribers
+     * @param <T> item type
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Adds the subscriber, it receives onSubscribe and then the items it requests
+         * @param subscriber subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of the items
+     * @param <T> item type
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method of the subscription
+         * @param subscription subscription to request the items or to cancel
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Next requested item
+         * @param item item
+         */
+        void onNext(T item);
+
+        /**
+         * Terminal failure, no more items follow
+         * @param throwable failure
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * All items were delivered
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between the publisher and the subscriber
+     */
+    public interface Subscription {
+
+        /**
+         * Adds n items to the demand of the subscriber
+         * @param n number of items, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery of the items
+         */
+        void cancel();
+    }
+
+}
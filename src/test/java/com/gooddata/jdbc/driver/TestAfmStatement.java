@@ -1,14 +1,20 @@
 package com.gooddata.jdbc.driver;
 
+import com.gooddata.jdbc.util.ConnectionProperties;
 import com.gooddata.jdbc.util.Parameters;
 import org.testng.annotations.Test;
 
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 
@@ -163,6 +169,27 @@ public class TestAfmStatement {
                 "AND \"# of Orders\" BETWEEN ? AND ? OFFSET 6 LIMIT 1", null, new Object[]{"Home", 3, 5});
     }
 
+    @Test
+    public void testPreparedStatementRebind() throws SQLException {
+        // compiled by the first execution, the next executions only bind the parameters
+        PreparedStatement statement = this.afmConnection.prepareStatement("SELECT \"Product Category\", Revenue " +
+                "WHERE \"Product Category\" = ? AND \"Customer State\" IN ('CA', 'MA')");
+        for (String category : new String[]{"Home", "Outdoor", "Home"}) {
+            statement.setString(1, category);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                assert (resultSet.getString(1).equals(category));
+            }
+        }
+        statement.clearParameters();
+        try {
+            statement.executeQuery();
+            assert (false);
+        } catch (SQLException e) {
+            // the parameter isn't bound
+        }
+    }
+
     @Test(expectedExceptions = { SQLException.class })
     public void testErrors() throws SQLException {
         testRetreivePreparedStatement("\"Date (Date)\", Product, Revenue::INTEGER, \"# of Orders::INTEGER\"," +
@@ -174,6 +201,27 @@ public class TestAfmStatement {
     }
 
 
+    @Test
+    public void testExecuteQueryAsync() throws SQLException, InterruptedException, ExecutionException {
+        List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Statement statement = this.afmConnection.createStatement();
+            assert (statement.isWrapperFor(AsyncStatement.class));
+            futures.add(statement.unwrap(AsyncStatement.class).executeQueryAsync(
+                    "SELECT \"Product Category\", \"# of Orders\" LIMIT " + (i + 1)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            ResultSet resultSet = futures.get(i).get();
+            int rows = 0;
+            while (resultSet.next()) {
+                resultSet.getObject(1);
+                rows++;
+            }
+            assert (rows <= i + 1);
+            resultSet.close();
+        }
+    }
+
     @Test
     public void testCreateAlterDescribeDrop() throws SQLException {
         Statement statement = this.afmConnection.createStatement();
@@ -186,4 +234,34 @@ public class TestAfmStatement {
         statement.execute("DROP METRIC \"testNGMetric\";");
     }
 
+    @Test
+    public void testAlterMetricInvalidatesResultCache() throws SQLException {
+        Parameters p = new Parameters();
+        Properties info = new Properties();
+        info.setProperty("user", p.getUsername());
+        info.setProperty("password", p.getPassword());
+        info.setProperty(ConnectionProperties.RESULT_CACHE_TTL_SECONDS, "600");
+        info.setProperty(ConnectionProperties.PERSISTENT_RESULT_CACHE_TTL_SECONDS, "600");
+        AfmConnection connection = (AfmConnection) DriverManager.getConnection(
+                String.format(DB_URL, p.getHost(), p.getWorkspace()), info);
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE METRIC \"testNGCachedMetric\" AS SELECT SUM(\"Revenue\")");
+        try {
+            ResultSet resultSet = statement.executeQuery("SELECT \"testNGCachedMetric\"");
+            assert (resultSet.next());
+            double total = resultSet.getDouble(1);
+            resultSet.close();
+            // the ALTER keeps the metric URI, the cached result of the old definition isn't served
+            statement.execute("ALTER METRIC \"testNGCachedMetric\" AS SELECT SUM(\"Revenue\") " +
+                    "WHERE \"Product Category\" IN ('Home')");
+            resultSet = statement.executeQuery("SELECT \"testNGCachedMetric\"");
+            assert (resultSet.next());
+            assert (resultSet.getDouble(1) < total);
+            resultSet.close();
+        } finally {
+            statement.execute("DROP METRIC \"testNGCachedMetric\";");
+            connection.close();
+        }
+    }
+
 }
@@ -0,0 +1,48 @@
+package com.gooddata.jdbc.parser;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+public class TestConstantFolder {
+
+    private static String fold(String expression) throws JSQLParserException {
+        BigDecimal value = ConstantFolder.fold(CCJSqlParserUtil.parseExpression(expression));
+        return value != null ? ConstantFolder.toText(value) : null;
+    }
+
+    @Test
+    public void testFold() throws JSQLParserException {
+        assert (fold("(2+5)*3").equals("21"));
+        assert (fold("(3*5+3)/6").equals("3"));
+        assert (fold("7/2").equals("3.5"));
+        assert (fold("1/3").equals("0.3333333333333333333333333333333333"));
+        assert (fold("7 DIV 2").equals("3"));
+        assert (fold("7%4").equals("3"));
+        assert (fold("-(2-5)").equals("3"));
+        assert (fold("0.1+0.2").equals("0.3"));
+        assert (fold("10*10").equals("100"));
+        assert (fold("9223372036854775807+1").equals("9223372036854775808"));
+    }
+
+    @Test
+    public void testNotFoldable() throws JSQLParserException {
+        assert (fold("1/0") == null);
+        assert (fold("c1+1") == null);
+        assert (fold("'a'") == null);
+        assert (fold("~1") == null);
+    }
+
+    @Test
+    public void testParsedFilterValues() throws JSQLParserException, SQLException {
+        SQLParser.ParsedSQL parsed = SQLParser.parseQuery(
+                "SELECT c1,c2 FROM t1 WHERE c2 IN (1/4, 2*3) AND c1 BETWEEN -1 AND 10/4");
+        assert (parsed.getFilters().get(0).getValues().get(0).equals("0.25"));
+        assert (parsed.getFilters().get(0).getValues().get(1).equals("6"));
+        assert (parsed.getFilters().get(1).getValues().get(1).equals("2.5"));
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.gooddata.jdbc.parser;
+
+import net.sf.jsqlparser.JSQLParserException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFastSQLParser {
+
+    private static final String[] COLUMNS = {"c1", "\"Product Category\"", "\"[/gdc/md/p/obj/1]\"",
+            "\"Revenue::DECIMAL(13,2)\"", "_c2"};
+    private static final String[] CONDITIONS = {"= 'Home'", "<> 'Home '", "!= 'O''Brien'", "> 10", ">= 1.50",
+            "< -3", "<= ?", "=?", "IN ('v1','v2', 'v3')", "NOT IN (?)", "in (1, -2.5)",
+            "BETWEEN 1 AND 2", "NOT BETWEEN ? AND ?", "between -10 and 10"};
+    private static final String[] TAILS = {"", " ORDER BY 1", " ORDER BY 1, 2 ASC, 3 DESC",
+            " order by \"Product Category\" desc, c1", " LIMIT 10", " LIMIT 10 OFFSET 3", " OFFSET 5",
+            " ORDER BY c1 DESC LIMIT 0"};
+
+    private static String describe(SQLParser.ParsedSQL parsed) {
+        StringBuilder s = new StringBuilder();
+        s.append(parsed.getColumns()).append(parsed.getTables());
+        for (SQLParser.ParsedSQL.FilterExpression f : parsed.getFilters()) {
+            s.append(f.getOperator()).append(f.getColumn()).append(f.getValues());
+        }
+        for (SQLParser.ParsedSQL.OrderByExpression o : parsed.getOrderBys()) {
+            s.append(o.getColumn()).append(' ').append(o.getOrder());
+        }
+        return s.append(parsed.getLimit()).append(',').append(parsed.getOffset()).toString();
+    }
+
+    private static void assertSameAsJSqlParser(String sql) throws JSQLParserException {
+        SQLParser.ParsedSQL fast = FastSQLParser.parse(sql);
+        assert (fast != null) : sql;
+        String expected = describe(SQLParser.parseQueryWithJSqlParser(sql));
+        assert (describe(fast).equals(expected)) : sql + " parsed to " + describe(fast) + " instead of " + expected;
+    }
+
+    @Test
+    public void testSameAsJSqlParser() throws JSQLParserException {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String columns = String.join(", ", java.util.Arrays.copyOf(COLUMNS, i + 1));
+            for (String condition : CONDITIONS) {
+                for (String tail : TAILS) {
+                    queries.add(String.format("SELECT %s FROM t1 WHERE %s %s%s", columns, COLUMNS[i], condition,
+                            tail));
+                    queries.add(String.format("select %s\n where %s %s and c1 = 'x'%s", columns, COLUMNS[i],
+                            condition, tail));
+                }
+            }
+        }
+        queries.add("SELECT c1,c2 FROM t1");
+        queries.add("SELECT \"c1\",\"c2\" FROM \"t1\"");
+        queries.add("  SELECT\tc1 ,c2  FROM \"My Table\"  ");
+        queries.add("SELECT \"Product Category\",\"# of Orders\" " +
+                "WHERE \"Product Category\" NOT IN ('Outdoor', 'Clothing') AND \"Revenue\" NOT BETWEEN 1000 AND 10000");
+        for (String sql : queries) {
+            assertSameAsJSqlParser(sql);
+        }
+    }
+
+    @Test
+    public void testFallback() throws JSQLParserException {
+        String[] fallbacks = {
+                "SELECT * FROM (SELECT \"c1\", \"c2\") SPARK_GEN_SUBQ_0 WHERE 1 = 0",
+                "SELECT c1 FROM t1 WHERE m1 = (3*5+3)/6",
+                "SELECT c1 FROM t1 WHERE m1 = 1 + 2",
+                "SELECT c1 AS a FROM t1",
+                "SELECT t.c1 FROM t1 t",
+                "SELECT c1 FROM t1 WHERE c1 = 'a' OR c1 = 'b'",
+                "SELECT c1 FROM t1 WHERE (c1 = 'a')",
+                "SELECT c1 FROM t1 WHERE c1 = 'a\\'b'",
+                "SELECT c1 FROM t1 WHERE m1 = 1e3",
+                "SELECT c1 FROM t1 LIMIT 5, 10",
+                "SELECT c1 FROM t1;",
+                "SELECT DISTINCT c1 FROM t1",
+                "SELECT \"a\"\"b\" FROM t1",
+                "SELECT c1 FROM t1 -- comment",
+        };
+        for (String sql : fallbacks) {
+            assert (FastSQLParser.parse(sql) == null) : sql;
+        }
+        // the folded and the wrapped queries still parse through JSqlParser
+        assert (SQLParser.parseQuery(fallbacks[0]).getColumns().contains("c1"));
+        assert (SQLParser.parseQuery(fallbacks[1]).getFilters().get(0).getValues().get(0).equals("3"));
+    }
+
+    @Test
+    public void testSyntaxErrorsAreLeftToJSqlParser() {
+        String[] errors = {"SELECT c1 FROM t1 WHERE c1='Home ", "SELECT c1 FROM t1 WHERE c1 IN () ",
+                "SELECT c1 FROM t1 WHERE c1 BETWEEN 2 ", "SELECT FROM t1", "SELECT c1, FROM t1"};
+        for (String sql : errors) {
+            assert (FastSQLParser.parse(sql) == null) : sql;
+            try {
+                SQLParser.parseQuery(sql);
+                assert (false) : sql;
+            } catch (JSQLParserException e) {
+                // reported by JSqlParser
+            }
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.gooddata.jdbc.parser;
+
+import net.sf.jsqlparser.JSQLParserException;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestParsedSQLCache {
+
+    private static final String SQL = "SELECT c1,c2 FROM t1 WHERE c1 IN (?, 'v2') AND c2 BETWEEN 1 AND ?";
+
+    @Test
+    public void testHitReturnsCopy() throws JSQLParserException, SQLException {
+        ParsedSQLCache cache = new ParsedSQLCache(10);
+        SQLParser.ParsedSQL first = cache.parse(SQL);
+        Map<Integer, Object> params = new HashMap<>();
+        params.put(1, "v1");
+        params.put(2, 5);
+        SQLParser.substitutePreparedParams(first, params);
+        assert (first.getFilters().get(0).getValues().get(0).equals("'v1'"));
+        assert (first.getFilters().get(1).getValues().get(1).equals("5"));
+
+        // the substitution in the first copy doesn't leak to the cached template
+        SQLParser.ParsedSQL second = cache.parse(SQL);
+        assert (second != first);
+        assert (second.getFilters().get(0).getValues().get(0).equals("?"));
+        assert (second.getFilters().get(1).getValues().get(1).equals("?"));
+        assert (second.getColumns().equals(first.getColumns()));
+        assert (cache.getHits() == 1 && cache.getMisses() == 1);
+        try {
+            second.getColumns().add("c3");
+            assert (false);
+        } catch (UnsupportedOperationException e) {
+            // the copies are immutable
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws JSQLParserException {
+        ParsedSQLCache cache = new ParsedSQLCache(2);
+        cache.parse("SELECT a FROM t");
+        cache.parse("SELECT b FROM t");
+        cache.parse("SELECT a FROM t");
+        cache.parse("SELECT c FROM t");
+        assert (cache.size() == 2);
+        assert (cache.getEvictions() == 1);
+        // b was the least recently used one
+        cache.parse("SELECT a FROM t");
+        assert (cache.getHits() == 2);
+        cache.parse("SELECT b FROM t");
+        assert (cache.getMisses() == 4);
+    }
+
+    @Test
+    public void testSyntaxErrorIsNotCached() {
+        ParsedSQLCache cache = new ParsedSQLCache(2);
+        try {
+            cache.parse("SELEC a FROM t");
+            assert (false);
+        } catch (JSQLParserException e) {
+            assert (cache.size() == 0);
+        }
+    }
+
+}
@@ -106,6 +106,32 @@ public class TestSQLParser {
                 "SPARK_GEN_SUBQ_0 WHERE 1 = 0");
         assert(parsedSQL.getColumns().contains("PRODUCT_CATEGORY"));
         assert(parsedSQL.getColumns().contains("REVENUE"));
+        assert(parsedSQL.isEmptyResult());
+
+        parsedSQL = SQLParser.parseQuery("SELECT * FROM (SELECT \"PRODUCT_CATEGORY\", \"REVENUE\" " +
+                "WHERE \"PRODUCT_CATEGORY\" IN ('Home')) SPARK_GEN_SUBQ_0 LIMIT 0");
+        assert(parsedSQL.isEmptyResult());
+        assert(parsedSQL.getFilters().get(0).getColumn().equals("PRODUCT_CATEGORY"));
+
+        parsedSQL = SQLParser.parseQuery("SELECT * FROM (SELECT \"PRODUCT_CATEGORY\", \"REVENUE\") " +
+                "SPARK_GEN_SUBQ_0");
+        assert(!parsedSQL.isEmptyResult());
+    }
+
+    @Test
+    public void testConstantPredicates() throws JSQLParserException {
+        SQLParser.ParsedSQL parsedSQL = SQLParser.parseQuery("SELECT c1 FROM t1 WHERE 1 = 0 AND c1 = 'Home'");
+        assert(parsedSQL.isEmptyResult());
+        assert(parsedSQL.getFilters().size() == 1);
+        assert(parsedSQL.copy().isEmptyResult());
+
+        parsedSQL = SQLParser.parseQuery("SELECT c1 FROM t1 WHERE 1 = 1 AND c1 = 'Home'");
+        assert(!parsedSQL.isEmptyResult());
+        assert(parsedSQL.getFilters().size() == 1);
+
+        assert(SQLParser.parseQuery("SELECT c1 FROM t1 WHERE 2 < 1").isEmptyResult());
+        assert(SQLParser.parseQuery("SELECT c1 FROM t1 LIMIT 0").isEmptyResult());
+        assert(!SQLParser.parseQuery("SELECT c1 FROM t1 LIMIT 1").isEmptyResult());
     }
 
     @Test
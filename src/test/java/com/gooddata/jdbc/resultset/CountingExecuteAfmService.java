@@ -0,0 +1,173 @@
+package com.gooddata.jdbc.resultset;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gooddata.sdk.model.executeafm.Execution;
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
+import com.gooddata.sdk.model.project.Project;
+import com.gooddata.sdk.service.FutureResult;
+import com.gooddata.sdk.service.GoodDataSettings;
+import com.gooddata.sdk.service.executeafm.ExecuteAfmService;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Offline AFM service that serves generated metric rows, optionally with one attribute column,
+ * and counts the calls it receives
+ */
+public class CountingExecuteAfmService extends ExecuteAfmService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int totalRows;
+    private final int metricCount;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicInteger pageRequests = new AtomicInteger();
+    private final AtomicInteger transferredRows = new AtomicInteger();
+    private final AtomicInteger polls = new AtomicInteger();
+    // page results from this row on are never done
+    private volatile int stalledFromRow = Integer.MAX_VALUE;
+    // added to the generated metric values
+    private volatile long metricOffset = 0;
+    // attribute value of the row, null serves no attribute
+    private volatile IntFunction<String> attributeValues;
+
+    /**
+     * Constructor
+     * @param totalRows number of rows of the generated result
+     * @param metricCount number of metric columns of the generated result
+     */
+    public CountingExecuteAfmService(int totalRows, int metricCount) {
+        super(new RestTemplate(), new GoodDataSettings());
+        this.totalRows = totalRows;
+        this.metricCount = metricCount;
+    }
+
+    public int getExecutions() {
+        return this.executions.get();
+    }
+
+    public int getPageRequests() {
+        return this.pageRequests.get();
+    }
+
+    public int getTransferredRows() {
+        return this.transferredRows.get();
+    }
+
+    public int getPolls() {
+        return this.polls.get();
+    }
+
+    /**
+     * Simulates the stuck computation of the result pages
+     * @param row first row of the pages that never get done
+     */
+    public void setStalledFromRow(int row) {
+        this.stalledFromRow = row;
+    }
+
+    /**
+     * Shifts the generated metric values
+     * @param offset added to the metric values
+     */
+    public void setMetricOffset(long offset) {
+        this.metricOffset = offset;
+    }
+
+    /**
+     * Serves one attribute column before the metrics
+     * @param values attribute value of the row
+     */
+    public void setAttributeValues(IntFunction<String> values) {
+        this.attributeValues = values;
+    }
+
+    @Override
+    public ExecutionResponse executeAfm(Project project, Execution execution) {
+        int id = this.executions.incrementAndGet();
+        return read(String.format("{\"executionResponse\":{\"dimensions\":[]," +
+                "\"links\":{\"executionResult\":\"/gdc/app/projects/test/executionResults/%d\"}}}", id),
+                ExecutionResponse.class);
+    }
+
+    @Override
+    public FutureResult<ExecutionResult> getResult(ExecutionResponse response, ResultPage page) {
+        this.pageRequests.incrementAndGet();
+        int offset = page.getOffsets().get(0);
+        int count = Math.max(0, Math.min(page.getLimits().get(0), this.totalRows - offset));
+        this.transferredRows.addAndGet(count);
+        StringBuilder data = new StringBuilder();
+        for (int row = offset; row < offset + count; row++) {
+            if (row > offset)
+                data.append(',');
+            data.append('[');
+            for (int metric = 0; metric < this.metricCount; metric++) {
+                if (metric > 0)
+                    data.append(',');
+                data.append('"').append(this.metricOffset + row * this.metricCount + metric).append('"');
+            }
+            data.append(']');
+        }
+        StringBuilder headers = new StringBuilder();
+        IntFunction<String> values = this.attributeValues;
+        if (values != null) {
+            headers.append('[');
+            for (int row = offset; row < offset + count; row++) {
+                if (row > offset)
+                    headers.append(',');
+                headers.append(String.format("{\"attributeHeaderItem\":{\"name\":\"%s\"," +
+                        "\"uri\":\"/gdc/md/test/obj/1/elements?id=%d\"}}", escape(values.apply(row)), row));
+            }
+            headers.append(']');
+        }
+        final boolean isStalled = offset >= this.stalledFromRow;
+        final ExecutionResult result = read(String.format("{\"executionResult\":{\"data\":[%s]," +
+                        "\"headerItems\":[[%s],[]]," +
+                        "\"paging\":{\"count\":[%d,%d],\"offset\":[%d,0],\"total\":[%d,%d]}}}",
+                data, headers, count, this.metricCount, offset, this.totalRows, this.metricCount),
+                ExecutionResult.class);
+        return new FutureResult<ExecutionResult>() {
+            @Override
+            public boolean isDone() {
+                polls.incrementAndGet();
+                return !isStalled;
+            }
+
+            @Override
+            public ExecutionResult get() {
+                return result;
+            }
+
+            @Override
+            public ExecutionResult get(long timeout, TimeUnit unit) {
+                return result;
+            }
+
+            @Override
+            public String getPollingUri() {
+                return response.getExecutionResultUri();
+            }
+        };
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\t", "\\t")
+                .replace("\n", "\\n");
+    }
+
+    private static <T> T read(String json, Class<T> cls) {
+        try {
+            return MAPPER.readValue(json, cls);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
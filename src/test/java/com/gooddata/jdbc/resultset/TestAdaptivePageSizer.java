@@ -0,0 +1,54 @@
+package com.gooddata.jdbc.resultset;
+
+import org.testng.annotations.Test;
+
+public class TestAdaptivePageSizer {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testNarrowFastResultGrows() {
+        AdaptivePageSizer s = new AdaptivePageSizer(1000, 100, 10000, 1000, 16 * MB);
+        s.record(1000, 100, 100 * 1024);
+        // growth is limited to twice the previous size
+        assert (s.getPageSize() == 2000);
+        s.record(2000, 200, 200 * 1024);
+        s.record(4000, 400, 400 * 1024);
+        s.record(8000, 800, 800 * 1024);
+        assert (s.getPageSize() == 10000);
+    }
+
+    @Test
+    public void testWideResultHitsMemoryCeiling() {
+        AdaptivePageSizer s = new AdaptivePageSizer(1000, 100, 10000, 1000, 16 * MB);
+        s.record(1000, 100, 32 * MB);
+        assert (s.getPageSize() == 500);
+        s.record(500, 50, 16 * MB);
+        assert (s.getPageSize() == 500);
+    }
+
+    @Test
+    public void testSlowResultShrinksToMin() {
+        AdaptivePageSizer s = new AdaptivePageSizer(1000, 100, 10000, 1000, 16 * MB);
+        for (int i = 0; i < 5; i++) {
+            s.record(s.getPageSize(), s.getPageSize() * 10L, 1024);
+        }
+        assert (s.getPageSize() == 100);
+    }
+
+    @Test
+    public void testSizeOnlySample() {
+        AdaptivePageSizer s = new AdaptivePageSizer(1000, 100, 10000, 1000, 16 * MB);
+        // the first page waits for the AFM computation, its latency isn't sampled
+        s.recordSize(1000, 100 * 1024);
+        assert (s.getPageSize() == 1000);
+        s.record(1000, 100, 100 * 1024);
+        assert (s.getPageSize() == 2000);
+
+        s = new AdaptivePageSizer(1000, 100, 10000, 1000, 16 * MB);
+        // the memory ceiling applies from the first page
+        s.recordSize(1000, 32 * MB);
+        assert (s.getPageSize() == 500);
+    }
+
+}
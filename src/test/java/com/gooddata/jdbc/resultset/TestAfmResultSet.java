@@ -0,0 +1,601 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.catalog.CatalogEntry;
+import com.gooddata.jdbc.util.ConnectionProperties;
+import com.gooddata.jdbc.util.Flow;
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.afm.Afm;
+import com.gooddata.sdk.model.executeafm.response.ExecutionResponse;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestAfmResultSet {
+
+    private static List<CatalogEntry> metricColumns(int count) {
+        List<CatalogEntry> columns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CatalogEntry c = new CatalogEntry(String.format("/gdc/md/test/obj/%d", i),
+                    String.format("m%d", i), "metric", String.format("m%d", i), null);
+            c.setDataType(CatalogEntry.DEFAULT_METRIC_DATATYPE);
+            columns.add(c);
+        }
+        return columns;
+    }
+
+    private static Statement statement(int fetchSize, int maxRows, int resultSetType) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getFetchSize":
+                            return fetchSize;
+                        case "getMaxRows":
+                            return maxRows;
+                        case "getResultSetType":
+                            return resultSetType;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    public void testSingleExecutionPerResultSet() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        int rows = 0;
+        while (rs.next()) {
+            assert (rs.getInt(1) == rows * 2);
+            rows++;
+        }
+        assert (rows == 5500);
+        assert (service.getExecutions() == 1);
+        assert (service.getPageRequests() == 6);
+    }
+
+    @Test
+    public void testEmptyResultIsNotExecuted() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5500, 2);
+        AfmResultSet rs = AfmResultSet.empty(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), 0, new ConnectionProperties(new Properties()));
+        assert (rs.getMetaData().getColumnCount() == 2);
+        assert (rs.getMetaData().getColumnName(2).equals("m1"));
+        assert (rs.getMetaData().getColumnType(1) == rs.getMetaData().getColumnType(2));
+        assert (!rs.next());
+        assert (rs.getRowCount() == 0);
+        assert (service.getExecutions() == 0);
+        assert (service.getPageRequests() == 0);
+        rs.close();
+    }
+
+    @Test
+    public void testPrefetch() throws SQLException {
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.PREFETCH_DEPTH, "3");
+        p.setProperty(ConnectionProperties.PREFETCH_WATERMARK, "0.1");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5500, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        int rows = 0;
+        while (rs.next()) {
+            assert (rs.getInt(1) == rows);
+            rows++;
+        }
+        assert (rows == 5500);
+        assert (service.getExecutions() == 1);
+        // every page is requested exactly once
+        assert (service.getPageRequests() == 6);
+        rs.close();
+        assert (rs.isClosed());
+    }
+
+    @Test
+    public void testParallelFetch() throws SQLException {
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.PARALLEL_FETCH_THREADS, "4");
+        p.setProperty(ConnectionProperties.PARALLEL_FETCH_WINDOW, "3");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(10500, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        int rows = 0;
+        while (rs.next()) {
+            // pages are handed to the cursor strictly in the row order
+            assert (rs.getInt(1) == rows);
+            rows++;
+        }
+        assert (rows == 10500);
+        assert (service.getExecutions() == 1);
+        assert (service.getPageRequests() == 11);
+        rs.close();
+    }
+
+    @Test
+    public void testTypedGetters() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(10, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        assert (rs.absolute(4));
+        assert (rs.getDouble(1) == 6.0);
+        assert (rs.getLong(2) == 7L);
+        assert (rs.getString(2).equals("7"));
+        assert (rs.getBigDecimal(1).equals(new BigDecimal("6")));
+        assert (rs.getObject(1).equals(new BigDecimal("6")));
+        assert (!rs.wasNull());
+        assert (rs.findColumn("m1") == 2);
+        assert (rs.getDouble("m0") == 6.0);
+    }
+
+    @Test
+    public void testMetricAccessDoesNotAllocate() throws SQLException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+            return;
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        double sum = 0;
+        long minAllocated = Long.MAX_VALUE;
+        // the first pass over the page requests the next page, the following passes over the fetched page
+        // allocate nothing, only the passes with the JIT compilation events may be charged some bytes
+        for (int pass = 0; pass < 20; pass++) {
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            rs.absolute(1);
+            for (int row = 0; row < 999; row++) {
+                sum += rs.getDouble(1) + rs.getInt(2);
+                rs.next();
+            }
+            long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+            if (pass > 0)
+                minAllocated = Math.min(minAllocated, allocated);
+        }
+        assert (minAllocated == 0) : String.format("allocated %d bytes", minAllocated);
+        assert (sum > 0);
+        rs.close();
+    }
+
+    @Test
+    public void testAdaptivePageSizeSkipsComputation() throws SQLException {
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.ADAPTIVE_PAGE_SIZE, "true");
+        p.setProperty(ConnectionProperties.ADAPTIVE_PAGE_TARGET_MS, "50");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(20000, 1);
+        SdkResultPageReader sdkReader = new SdkResultPageReader(service);
+        List<Integer> limits = Collections.synchronizedList(new ArrayList<>());
+        ResultPageReader slowFirstPage = (response, page, metricCount, dictionaries) -> {
+            limits.add(page.getLimits().get(0));
+            if (limits.size() == 1) {
+                // the response of the first page includes the AFM computation
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sdkReader.read(response, page, metricCount, dictionaries);
+        };
+        AfmResultSet rs = new AfmResultSet(null, null, service, slowFirstPage, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        assert (rs.absolute(1001) && rs.getInt(1) == 1000);
+        // the slow computation doesn't halve the following page
+        assert (limits.get(0) == AfmResultSet.DEFAULT_FETCH_SIZE);
+        assert (limits.get(1) == AfmResultSet.DEFAULT_FETCH_SIZE);
+        rs.close();
+    }
+
+    @Test
+    public void testLimitOffsetPushDown() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(200000, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), 10, 100000, new ConnectionProperties(new Properties()));
+        int rows = 0;
+        while (rs.next()) {
+            assert (rs.getInt(1) == 100000 + rows);
+            rows++;
+        }
+        assert (rows == 10);
+        assert (service.getPageRequests() == 1);
+        assert (service.getTransferredRows() == 10);
+        rs.close();
+    }
+
+    @Test
+    public void testStatementFetchSizeAndMaxRows() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5000, 1);
+        AfmResultSet rs = new AfmResultSet(statement(100, 250, ResultSet.TYPE_FORWARD_ONLY), null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        assert (rs.getFetchSize() == 100);
+        int rows = 0;
+        while (rs.next()) {
+            assert (rs.getInt(1) == rows);
+            rows++;
+        }
+        assert (rows == 250);
+        assert (service.getPageRequests() == 3);
+        assert (service.getTransferredRows() == 250);
+        rs.close();
+    }
+
+    @Test
+    public void testScrollInsensitivePageCache() throws SQLException {
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.PAGE_CACHE_SIZE, "100");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5000, 1);
+        AfmResultSet rs = new AfmResultSet(statement(100, 0, ResultSet.TYPE_SCROLL_INSENSITIVE), null, service,
+                new Afm(), metricColumns(1), Collections.emptyList(), Integer.MAX_VALUE, 0,
+                new ConnectionProperties(p));
+        assert (rs.getType() == ResultSet.TYPE_SCROLL_INSENSITIVE);
+        while (rs.next()) {
+            rs.getInt(1);
+        }
+        assert (rs.isAfterLast());
+        int row = 4999;
+        while (rs.previous()) {
+            assert (rs.getInt(1) == row--);
+        }
+        assert (row == -1);
+        assert (rs.isBeforeFirst());
+        // moving back is served from the cache
+        assert (service.getPageRequests() == 50);
+        assert (rs.getPageCache().getHits() == 49);
+        assert (rs.absolute(-1) && rs.getInt(1) == 4999);
+        assert (rs.first() && rs.getInt(1) == 0);
+        assert (rs.last() && rs.getInt(1) == 4999);
+        assert (service.getPageRequests() == 50);
+        rs.close();
+    }
+
+    @Test
+    public void testPageCacheEviction() throws SQLException {
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.PAGE_CACHE_SIZE, "2");
+        p.setProperty(ConnectionProperties.PREFETCH_DEPTH, "0");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(500, 1);
+        AfmResultSet rs = new AfmResultSet(statement(100, 0, ResultSet.TYPE_SCROLL_INSENSITIVE), null, service,
+                new Afm(), metricColumns(1), Collections.emptyList(), Integer.MAX_VALUE, 0,
+                new ConnectionProperties(p));
+        assert (rs.absolute(450) && rs.getInt(1) == 449);
+        assert (rs.absolute(350) && rs.getInt(1) == 349);
+        assert (rs.absolute(250) && rs.getInt(1) == 249);
+        assert (rs.getPageCache().size() == 2);
+        assert (rs.getPageCache().getEvictions() == 2);
+        // the page of the row 450 was evicted, the page of the row 350 wasn't
+        assert (rs.absolute(350) && rs.getInt(1) == 349);
+        assert (service.getPageRequests() == 4);
+        assert (rs.absolute(450) && rs.getInt(1) == 449);
+        assert (service.getPageRequests() == 5);
+        rs.close();
+    }
+
+    @Test
+    public void testResultCache() throws SQLException {
+        ResultCache.shared().clear();
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.RESULT_CACHE_TTL_SECONDS, "60");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 1);
+        assert (AfmResultSet.findCachedResult(null, null, new Afm(), metricColumns(1), Collections.emptyList(),
+                Integer.MAX_VALUE, 0, new ConnectionProperties(p)) == null);
+        for (int i = 0; i < 3; i++) {
+            AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                    Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+            int rows = 0;
+            while (rs.next()) {
+                assert (rs.getInt(1) == rows);
+                rows++;
+            }
+            assert (rows == 2500);
+            rs.close();
+        }
+        // the repeated queries are served from the cache
+        assert (service.getExecutions() == 1);
+        assert (service.getPageRequests() == 3);
+        assert (ResultCache.shared().getHits() >= 2);
+        // the lookup of the async execution doesn't execute the AFM, its result is served by the ResultSet
+        long hits = ResultCache.shared().getHits();
+        CachedResultReader cached = AfmResultSet.findCachedResult(null, null, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        assert (cached != null);
+        assert (AfmResultSet.findCachedResult(null, null, new Afm(), metricColumns(1), Collections.emptyList(),
+                Integer.MAX_VALUE, 10, new ConnectionProperties(p)) == null);
+        assert (ResultCache.shared().getHits() == hits + 1);
+        AfmResultSet served = new AfmResultSet(null, null, service, new SdkResultPageReader(service), new Afm(),
+                metricColumns(1), Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p),
+                cached, null, null);
+        assert (served.absolute(2500) && served.getInt(1) == 2499);
+        served.close();
+        // the found result isn't looked up again
+        assert (ResultCache.shared().getHits() == hits + 1);
+        assert (service.getExecutions() == 1);
+        assert (service.getPageRequests() == 3);
+
+        // different OFFSET is a different result
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 10, new ConnectionProperties(p));
+        assert (rs.next() && rs.getInt(1) == 10);
+        assert (service.getExecutions() == 2);
+        rs.close();
+
+        // the result of the same AFM isn't served to another login or host
+        Properties other = new Properties();
+        other.putAll(p);
+        other.setProperty("user", "bob@example.com");
+        rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(other));
+        assert (rs.next() && rs.getInt(1) == 0);
+        assert (service.getExecutions() == 3);
+        rs.close();
+        rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p, "other.gooddata.com"));
+        assert (rs.next() && rs.getInt(1) == 0);
+        assert (service.getExecutions() == 4);
+        rs.close();
+        ResultCache.shared().clear();
+    }
+
+    @Test
+    public void testResultCacheInvalidation() throws SQLException {
+        ResultCache.shared().clear();
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.RESULT_CACHE_TTL_SECONDS, "60");
+        CountingExecuteAfmService service = new CountingExecuteAfmService(10, 1);
+        for (int i = 0; i < 2; i++) {
+            AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                    Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+            assert (rs.absolute(10));
+            rs.close();
+        }
+        assert (service.getExecutions() == 1);
+        // the MAQL DDL drops the results of the workspace, the query is executed again
+        ResultCache.shared().invalidate(null, null);
+        assert (ResultCache.shared().size() == 0);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        rs.close();
+        assert (service.getExecutions() == 2);
+    }
+
+    @Test
+    public void testQueryTimeout() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(500, 1);
+        service.setStalledFromRow(200);
+        QueryControl control = new QueryControl(300);
+        AfmResultSet rs = new AfmResultSet(statement(100, 0, ResultSet.TYPE_FORWARD_ONLY), null, service,
+                new SdkResultPageReader(service, control), new Afm(), metricColumns(1), Collections.emptyList(),
+                Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        int rows = 0;
+        long start = System.currentTimeMillis();
+        try {
+            while (rs.next()) {
+                rs.getInt(1);
+                rows++;
+            }
+            assert (false);
+        } catch (SQLTimeoutException e) {
+            assert (e.getSQLState().equals(QueryControl.SQL_STATE_TIMEOUT));
+        }
+        assert (rows == 200);
+        assert (System.currentTimeMillis() - start < 5000);
+        // the timed out ResultSet releases its resources
+        assert (rs.isClosed());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(500, 1);
+        service.setStalledFromRow(0);
+        QueryControl control = new QueryControl(0);
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ignored) {
+                // cancel right away
+            }
+            control.cancel();
+        });
+        canceller.start();
+        long start = System.currentTimeMillis();
+        try {
+            new AfmResultSet(statement(100, 0, ResultSet.TYPE_FORWARD_ONLY), null, service,
+                    new SdkResultPageReader(service, control), new Afm(), metricColumns(1),
+                    Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+            assert (false);
+        } catch (SQLException e) {
+            assert (e.getSQLState().equals(QueryControl.SQL_STATE_CANCELLED));
+        }
+        canceller.join();
+        assert (System.currentTimeMillis() - start < 5000);
+        // the stuck result was polled until the cancel
+        assert (service.getPolls() > 1);
+        assert (control.getPolls() > 1 && control.getPollWaitMs() > 0);
+    }
+
+    /**
+     * Subscriber that requests the rows in batches and cancels after the row limit
+     */
+    private static class BatchSubscriber implements Flow.Subscriber<Object[]> {
+
+        private final int batch;
+        private final int cancelAfter;
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean isOrdered = true;
+        private Flow.Subscription subscription;
+
+        BatchSubscriber(int batch, int cancelAfter) {
+            this.batch = batch;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(this.batch);
+        }
+
+        @Override
+        public void onNext(Object[] row) {
+            int n = this.rows.getAndIncrement();
+            if (((Number) row[0]).intValue() != n)
+                this.isOrdered = false;
+            if (n + 1 == this.cancelAfter) {
+                this.subscription.cancel();
+                this.done.countDown();
+            } else if ((n + 1) % this.batch == 0) {
+                this.subscription.request(this.batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error.set(throwable);
+            this.done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.countDown();
+        }
+    }
+
+    @Test
+    public void testRowPublisher() throws SQLException, InterruptedException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5500, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        BatchSubscriber subscriber = new BatchSubscriber(64, Integer.MAX_VALUE);
+        rs.getRowPublisher().subscribe(subscriber);
+        assert (subscriber.done.await(10, TimeUnit.SECONDS));
+        assert (subscriber.error.get() == null);
+        assert (subscriber.rows.get() == 5500);
+        assert (subscriber.isOrdered);
+        assert (service.getPageRequests() == 6);
+        assert (rs.isClosed());
+
+        // the rows are published only once
+        BatchSubscriber second = new BatchSubscriber(64, Integer.MAX_VALUE);
+        rs.getRowPublisher().subscribe(second);
+        assert (second.error.get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testRowPublisherCancel() throws SQLException, InterruptedException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(5500, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(1),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        BatchSubscriber subscriber = new BatchSubscriber(50, 300);
+        rs.getRowPublisher().subscribe(subscriber);
+        assert (subscriber.done.await(10, TimeUnit.SECONDS));
+        assert (subscriber.rows.get() == 300);
+        // the cursor stayed in the first page, the cancel stops any further fetch
+        Thread.sleep(100);
+        assert (service.getPageRequests() == 1);
+        assert (rs.isClosed());
+    }
+
+    @Test
+    public void testExport() throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        assert (rs.next());
+        Path csv = Files.createTempFile("gdjdbc-export", ".csv");
+        ResultExporter.Stats stats = rs.exportTo(csv, ResultExporter.Format.CSV);
+        // the export continues after the current row
+        assert (stats.getRows() == 2499);
+        assert (stats.getBytes() == Files.size(csv));
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assert (lines.size() == 2500);
+        assert (lines.get(0).equals("m0,m1"));
+        assert (lines.get(1).equals("2,3"));
+        assert (lines.get(2499).equals("4998,4999"));
+        assert (rs.isAfterLast());
+        assert (service.getPageRequests() == 3);
+        rs.close();
+
+        rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), 10, 5, new ConnectionProperties(new Properties()));
+        Path jsonl = Files.createTempFile("gdjdbc-export", ".jsonl");
+        assert (rs.exportTo(jsonl, ResultExporter.Format.JSONL).getRows() == 10);
+        lines = Files.readAllLines(jsonl, StandardCharsets.UTF_8);
+        assert (lines.size() == 10);
+        assert (lines.get(0).equals("{\"m0\":10,\"m1\":11}"));
+        rs.close();
+    }
+
+    @Test
+    public void testPolledFirstPage() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 1);
+        ConnectionProperties properties = new ConnectionProperties(new Properties());
+        // the async execution polls the first page window of the ResultSet until the result is computed
+        ExecutionResponse response = service.executeAfm(null, AfmResultSet.createExecution(new Afm(),
+                metricColumns(1), Collections.emptyList()));
+        ResultPage firstPage = AfmResultSet.getFirstPage(null, metricColumns(1), 1200, 100, properties);
+        assert (firstPage.getOffsets().get(0) == 100);
+        assert (firstPage.getLimits().get(0) == AfmResultSet.DEFAULT_FETCH_SIZE);
+        ExecutionResult firstResult = service.getResult(response, firstPage).get();
+        AfmResultSet rs = new AfmResultSet(null, null, service, new SdkResultPageReader(service), new Afm(),
+                metricColumns(1), Collections.emptyList(), 1200, 100, properties, null, response, firstResult);
+        assert (rs.next() && rs.getInt(1) == 100);
+        // the ResultSet starts with the polled page instead of requesting it again
+        assert (service.getExecutions() == 1);
+        assert (service.getPageRequests() == 1);
+        assert (rs.absolute(1200) && rs.getInt(1) == 1299);
+        assert (service.getPageRequests() == 2);
+        rs.close();
+    }
+
+    @Test
+    public void testFetchBatch() throws SQLException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), metricColumns(2),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        assert (rs.next());
+        // the typed copies don't move the cursor and cross the page boundary
+        double[] doubles = new double[1500];
+        assert (rs.fetchDoubles(2, doubles) == 1500);
+        assert (doubles[0] == 3 && doubles[1499] == 3001);
+        String[] strings = new String[1500];
+        assert (rs.fetchStrings(1, strings) == 1500);
+        assert (strings[0].equals("2") && strings[1499].equals("3000"));
+        assert (rs.getRow() == 1);
+
+        Object[][] rows = new Object[1500][];
+        assert (rs.fetchBatch(rows.length, rows) == 1500);
+        assert (rows[0][0].equals(new BigDecimal("2")));
+        assert (rows[1499][1].equals(new BigDecimal("3001")));
+        assert (rs.getRow() == 1501);
+        assert (rs.getObject(1).equals(rows[1499][0]));
+        // the last rows only
+        assert (rs.fetchBatch(rows.length, rows) == 999);
+        assert (rows[998][1].equals(new BigDecimal("4999")));
+        assert (rs.isLast());
+        assert (rs.fetchBatch(rows.length, rows) == 0);
+        assert (rs.isAfterLast());
+        assert (service.getPageRequests() == 3);
+        rs.close();
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.catalog.CatalogEntry;
+import com.gooddata.jdbc.util.ConnectionProperties;
+import com.gooddata.sdk.model.executeafm.afm.Afm;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+public class TestArrowResultReader {
+
+    private static List<CatalogEntry> columns() {
+        List<CatalogEntry> columns = new ArrayList<>();
+        CatalogEntry decimal = new CatalogEntry("/gdc/md/test/obj/0", "m0", "metric", "m0", null);
+        decimal.setDataType(CatalogEntry.DEFAULT_METRIC_DATATYPE);
+        columns.add(decimal);
+        CatalogEntry dbl = new CatalogEntry("/gdc/md/test/obj/1", "m1", "metric", "m1", null);
+        dbl.setDataType("DOUBLE");
+        columns.add(dbl);
+        return columns;
+    }
+
+    private static List<CatalogEntry> attributeColumns() {
+        List<CatalogEntry> columns = new ArrayList<>();
+        CatalogEntry attribute = new CatalogEntry("/gdc/md/test/obj/1", "a0", "attribute", "a0", null);
+        attribute.setDataType(CatalogEntry.DEFAULT_ATTRIBUTE_DATATYPE);
+        columns.add(attribute);
+        columns.addAll(columns());
+        return columns;
+    }
+
+    /**
+     * The first page has 3 values, the second page adds 2 values to the dictionary of 5 values
+     * and 2 values that don't fit to it, the third page repeats them
+     */
+    private static String attributeValue(int row) {
+        return row < 1000 ? "city" + row % 3 : "city" + row % 7;
+    }
+
+    private static String decode(VarCharVector dictionary, IntVector codes, int row) {
+        return new String(dictionary.get(codes.get(row)), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRecordBatches() throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), columns(),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        assert (rs.isWrapperFor(ArrowReader.class));
+        int rows = 0;
+        int batches = 0;
+        try (ArrowReader reader = rs.unwrap(ArrowReader.class)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                DecimalVector m0 = (DecimalVector) root.getVector(0);
+                Float8Vector m1 = (Float8Vector) root.getVector(1);
+                for (int r = 0; r < root.getRowCount(); r++) {
+                    assert (m0.getObject(r).compareTo(BigDecimal.valueOf(2L * (rows + r))) == 0);
+                    assert (m1.get(r) == 2.0 * (rows + r) + 1);
+                }
+                rows += root.getRowCount();
+                batches++;
+            }
+        }
+        assert (rows == 2500);
+        // one record batch per result page
+        assert (batches == 3);
+        rs.close();
+    }
+
+    @Test
+    public void testExportStream() throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(1500, 2);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), columns(),
+                Collections.emptyList(), 1200, 100, new ConnectionProperties(new Properties()));
+        Path file = Files.createTempFile("gdjdbc-export", ".arrows");
+        ResultExporter.Stats stats = rs.exportTo(file, ResultExporter.Format.ARROW);
+        assert (stats.getRows() == 1200);
+        assert (stats.getBytes() == Files.size(file));
+        rs.close();
+
+        int rows = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             InputStream in = Files.newInputStream(file);
+             ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                Float8Vector m1 = (Float8Vector) root.getVector(1);
+                for (int r = 0; r < root.getRowCount(); r++) {
+                    assert (m1.get(r) == 2.0 * (100 + rows + r) + 1);
+                }
+                rows += root.getRowCount();
+            }
+        }
+        assert (rows == 1200);
+    }
+
+    @Test
+    public void testLargeDecimals() throws SQLException, IOException {
+        // the values have more digits than the DECIMAL(13,2) declares
+        CountingExecuteAfmService service = new CountingExecuteAfmService(10, 2);
+        service.setMetricOffset(123456789012345L);
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), columns(),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        int rows = 0;
+        try (ArrowReader reader = rs.unwrap(ArrowReader.class)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                DecimalVector m0 = (DecimalVector) root.getVector(0);
+                assert (m0.getScale() == 2);
+                for (int r = 0; r < root.getRowCount(); r++) {
+                    assert (m0.getObject(r).compareTo(BigDecimal.valueOf(123456789012345L + 2L * (rows + r))) == 0);
+                }
+                rows += root.getRowCount();
+            }
+        }
+        assert (rows == 10);
+        rs.close();
+    }
+
+    @Test
+    public void testAttributeDictionaries() throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        service.setAttributeValues(TestArrowResultReader::attributeValue);
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.ATTRIBUTE_DICTIONARY_SIZE, "5");
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), attributeColumns(),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        int rows = 0;
+        int batches = 0;
+        try (ArrowReader reader = rs.unwrap(ArrowReader.class)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                IntVector a0 = (IntVector) root.getVector(0);
+                VarCharVector dictionary = (VarCharVector) reader.lookup(0).getVector();
+                Set<Integer> codes = new HashSet<>();
+                for (int r = 0; r < root.getRowCount(); r++) {
+                    assert (decode(dictionary, a0, r).equals(attributeValue(rows + r)));
+                    codes.add(a0.get(r));
+                }
+                // the page dictionary codes, then the codes of the values over the full dictionary
+                assert (codes.size() == (batches == 0 ? 3 : 7));
+                assert (dictionary.getValueCount() == (batches == 0 ? 3 : 7));
+                rows += root.getRowCount();
+                batches++;
+            }
+        }
+        assert (rows == 2500 && batches == 3);
+        rs.close();
+    }
+
+    @Test
+    public void testExportAttributeDictionaries() throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 2);
+        service.setAttributeValues(TestArrowResultReader::attributeValue);
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.ATTRIBUTE_DICTIONARY_SIZE, "5");
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), attributeColumns(),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        Path file = Files.createTempFile("gdjdbc-export", ".arrows");
+        assert (rs.exportTo(file, ResultExporter.Format.ARROW).getRows() == 2500);
+        rs.close();
+
+        int rows = 0;
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             InputStream in = Files.newInputStream(file);
+             ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                IntVector a0 = (IntVector) root.getVector(0);
+                // the grown dictionary is sent again before the batch that uses its new codes
+                Dictionary dictionary = reader.getDictionaryVectors().get(0L);
+                VarCharVector values = (VarCharVector) dictionary.getVector();
+                assert (values.getValueCount() == (batches == 0 ? 3 : 7));
+                for (int r = 0; r < root.getRowCount(); r++) {
+                    assert (decode(values, a0, r).equals(attributeValue(rows + r)));
+                }
+                rows += root.getRowCount();
+                batches++;
+            }
+        }
+        assert (rows == 2500 && batches == 3);
+    }
+
+}
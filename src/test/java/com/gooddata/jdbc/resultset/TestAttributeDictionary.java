@@ -0,0 +1,38 @@
+package com.gooddata.jdbc.resultset;
+
+import org.testng.annotations.Test;
+
+public class TestAttributeDictionary {
+
+    @Test
+    public void testCanonicalValues() {
+        AttributeDictionary d = new AttributeDictionary(10);
+        int code = d.encode(new String("Prague"));
+        assert (d.encode(new String("Prague")) == code);
+        assert (d.decode(code) == d.decode(d.encode(new String("Prague"))));
+        assert (d.encode("Brno") != code);
+        assert (d.size() == 2);
+    }
+
+    @Test
+    public void testGrowth() {
+        AttributeDictionary d = new AttributeDictionary(1000);
+        for (int i = 0; i < 500; i++) {
+            assert (d.encode(String.valueOf(i)) == i);
+        }
+        for (int i = 0; i < 500; i++) {
+            assert (d.decode(i).equals(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void testFullDictionary() {
+        AttributeDictionary d = new AttributeDictionary(2);
+        d.encode("a");
+        d.encode("b");
+        assert (d.encode("c") == AttributeDictionary.NOT_ENCODED);
+        assert (d.encode("a") == 0);
+        assert (d.size() == 2);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.gooddata.jdbc.resultset;
+
+import org.testng.annotations.Test;
+
+public class TestPollingPolicy {
+
+    @Test
+    public void testBackoffIsCapped() {
+        PollingPolicy p = new PollingPolicy(50, 100, 2, 1000, 0);
+        assert (p.getDelay(0) == 50);
+        assert (p.getDelay(1) == 100);
+        assert (p.getDelay(2) == 200);
+        assert (p.getDelay(4) == 800);
+        assert (p.getDelay(5) == 1000);
+        assert (p.getDelay(100) == 1000);
+    }
+
+    @Test
+    public void testJitterStaysInRange() {
+        PollingPolicy p = new PollingPolicy(0, 1000, 1, 1000, 0.2);
+        boolean isSpread = false;
+        for (int i = 0; i < 100; i++) {
+            long delay = p.getDelay(1);
+            assert (delay >= 800 && delay <= 1200);
+            isSpread |= delay != 1000;
+        }
+        assert (isSpread);
+        // no initial delay stays no delay
+        assert (p.getDelay(0) == 0);
+    }
+
+    @Test
+    public void testReadyResultIsNotDelayed() {
+        QueryControl control = new QueryControl(0, new PollingPolicy(500, 100, 1, 100, 0));
+        assert (control.getPollDelay(0) == 500);
+        assert (!control.recordPoll(false));
+        assert (control.recordPoll(true));
+        // the next pages of the computed result are requested right away
+        assert (control.getPollDelay(0) == 0);
+        assert (control.getPollDelay(1) == 100);
+        assert (control.getPolls() == 2);
+    }
+
+}
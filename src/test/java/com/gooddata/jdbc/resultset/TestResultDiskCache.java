@@ -0,0 +1,118 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+public class TestResultDiskCache {
+
+    private static final String HOST = "secure.gooddata.com";
+    private static final String LOGIN = "alice@example.com";
+
+    private static ResultPageBuffer page(int rowOffset, int rowCount, int totalRows, AttributeDictionary dictionary)
+            throws SQLException {
+        ResultPageBuffer.MetricColumn metric = new ResultPageBuffer.MetricColumn(rowCount);
+        ResultPageBuffer.AttributeColumn attribute = new ResultPageBuffer.AttributeColumn(rowCount, dictionary);
+        for (int row = 0; row < rowCount; row++) {
+            metric.set(row, String.valueOf(rowOffset + row));
+            attribute.set(row, String.format("city%d", (rowOffset + row) % 7));
+        }
+        return new ResultPageBuffer(rowOffset, rowCount, totalRows,
+                new ResultPageBuffer.MetricColumn[]{metric}, new ResultPageBuffer.AttributeColumn[]{attribute});
+    }
+
+    @Test
+    public void testStoreAndLoad() throws IOException, SQLException {
+        Path root = Files.createTempDirectory("gdjdbc-results-test");
+        ResultDiskCache cache = new ResultDiskCache(root);
+        ResultCacheKey key = new ResultCacheKey(HOST, LOGIN, "/gdc/projects/abc", "{\"execution\":{}}",
+                1000, 0);
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        TreeMap<Integer, ResultPageBuffer> pages = new TreeMap<>();
+        pages.put(0, page(0, 100, 150, dictionaries[0]));
+        pages.put(100, page(100, 50, 150, dictionaries[0]));
+        cache.put(key, pages, dictionaries, System.currentTimeMillis() + 60000);
+        assert (Files.exists(cache.getFile(key)));
+        Path directory = cache.getFile(key).getParent();
+        assert (directory.equals(root.resolve(HOST).resolve(LOGIN).resolve("abc")));
+
+        // a new cache instance simulates the JVM restart
+        ResultDiskCache.Entry entry = new ResultDiskCache(root).get(key, 100);
+        assert (entry != null);
+        assert (entry.getPageCount() == 2);
+        ResultPageBuffer p = entry.read(null, new ResultPage(Arrays.asList(120, 0), Arrays.asList(100, 2)),
+                1, entry.getDictionaries());
+        assert (p.getRowOffset() == 100);
+        assert (p.getRowCount() == 50);
+        assert (p.getTotalRows() == 150);
+        assert (p.getMetric(0).getValue(20) == 120.0);
+        assert (p.getAttribute(0).getValue(20).equals("city1"));
+
+        // other key with the same workspace isn't served
+        assert (cache.get(new ResultCacheKey(HOST, LOGIN, "/gdc/projects/abc", "{}", 1000, 0), 100) == null);
+    }
+
+    @Test
+    public void testOtherLoginMisses() throws IOException, SQLException {
+        Path root = Files.createTempDirectory("gdjdbc-results-test");
+        ResultDiskCache cache = new ResultDiskCache(root);
+        String execution = "{\"execution\":{}}";
+        ResultCacheKey key = new ResultCacheKey(HOST, LOGIN, "/gdc/projects/abc", execution, 1000, 0);
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        TreeMap<Integer, ResultPageBuffer> pages = new TreeMap<>();
+        pages.put(0, page(0, 10, 10, dictionaries[0]));
+        cache.put(key, pages, dictionaries, System.currentTimeMillis() + 60000);
+
+        ResultDiskCache restarted = new ResultDiskCache(root);
+        assert (restarted.get(key, 100) != null);
+        // the same AFM of the same workspace isn't served to another login or another server
+        ResultCacheKey otherLogin = new ResultCacheKey(HOST, "bob@example.com", "/gdc/projects/abc", execution,
+                1000, 0);
+        ResultCacheKey otherHost = new ResultCacheKey("other.gooddata.com", LOGIN, "/gdc/projects/abc", execution,
+                1000, 0);
+        assert (restarted.get(otherLogin, 100) == null);
+        assert (restarted.get(otherHost, 100) == null);
+        assert (!restarted.getFile(otherLogin).getParent().equals(restarted.getFile(key).getParent()));
+    }
+
+    @Test
+    public void testExpiredEntry() throws IOException, SQLException {
+        Path root = Files.createTempDirectory("gdjdbc-results-test");
+        ResultDiskCache cache = new ResultDiskCache(root);
+        ResultCacheKey key = new ResultCacheKey(HOST, LOGIN, "/gdc/projects/abc", "{}", 10, 0);
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        TreeMap<Integer, ResultPageBuffer> pages = new TreeMap<>();
+        pages.put(0, page(0, 10, 10, dictionaries[0]));
+        cache.put(key, pages, dictionaries, System.currentTimeMillis() - 1);
+        assert (cache.get(key, 100) == null);
+        assert (!Files.exists(cache.getFile(key)));
+    }
+
+    @Test
+    public void testInvalidateWorkspace() throws IOException, SQLException {
+        Path root = Files.createTempDirectory("gdjdbc-results-test");
+        ResultDiskCache cache = new ResultDiskCache(root);
+        String execution = "{\"execution\":{}}";
+        ResultCacheKey key = new ResultCacheKey(HOST, LOGIN, "/gdc/projects/abc", execution, 1000, 0);
+        ResultCacheKey otherLogin = new ResultCacheKey(HOST, "bob@example.com", "/gdc/projects/abc", execution,
+                1000, 0);
+        ResultCacheKey otherWorkspace = new ResultCacheKey(HOST, LOGIN, "/gdc/projects/xyz", execution, 1000, 0);
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        TreeMap<Integer, ResultPageBuffer> pages = new TreeMap<>();
+        pages.put(0, page(0, 10, 10, dictionaries[0]));
+        for (ResultCacheKey k : Arrays.asList(key, otherLogin, otherWorkspace)) {
+            cache.put(k, pages, dictionaries, System.currentTimeMillis() + 60000);
+        }
+        // the changed metric changes the results of all logins of the workspace
+        cache.invalidate(HOST, "/gdc/projects/abc");
+        assert (cache.get(key, 100) == null && cache.get(otherLogin, 100) == null);
+        assert (cache.get(otherWorkspace, 100) != null);
+    }
+
+}
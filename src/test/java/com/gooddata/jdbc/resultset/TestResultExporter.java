@@ -0,0 +1,126 @@
+package com.gooddata.jdbc.resultset;
+
+import com.gooddata.jdbc.catalog.CatalogEntry;
+import com.gooddata.jdbc.util.ConnectionProperties;
+import com.gooddata.sdk.model.executeafm.afm.Afm;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+public class TestResultExporter {
+
+    // the last value doesn't fit to the attribute dictionary
+    private static final String[] VALUES = {"Prague, CZ", "say \"hi\"", "tab\there", "plain", "a,\"b\"\tc"};
+
+    private static List<CatalogEntry> columns() {
+        List<CatalogEntry> columns = new ArrayList<>();
+        CatalogEntry attribute = new CatalogEntry("/gdc/md/test/obj/1", "a0", "attribute", "a0", null);
+        attribute.setDataType(CatalogEntry.DEFAULT_ATTRIBUTE_DATATYPE);
+        columns.add(attribute);
+        CatalogEntry metric = new CatalogEntry("/gdc/md/test/obj/2", "m0", "metric", "m0", null);
+        metric.setDataType(CatalogEntry.DEFAULT_METRIC_DATATYPE);
+        columns.add(metric);
+        return columns;
+    }
+
+    private static List<String> export(ResultExporter.Format format, String suffix)
+            throws SQLException, IOException {
+        CountingExecuteAfmService service = new CountingExecuteAfmService(2500, 1);
+        service.setAttributeValues(row -> VALUES[row % VALUES.length]);
+        service.setMetricOffset(-1250);
+        Properties p = new Properties();
+        p.setProperty(ConnectionProperties.ATTRIBUTE_DICTIONARY_SIZE, "4");
+        AfmResultSet rs = new AfmResultSet(null, null, service, new Afm(), columns(),
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(p));
+        Path file = Files.createTempFile("gdjdbc-export", suffix);
+        ResultExporter.Stats stats = rs.exportTo(file, format);
+        rs.close();
+        assert (stats.getRows() == 2500);
+        assert (stats.getBytes() == Files.size(file));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assert (lines.size() == 2501);
+        return lines;
+    }
+
+    @Test
+    public void testEscape() {
+        assert (ResultExporter.escape("Home", ResultExporter.Format.CSV).equals("Home"));
+        assert (ResultExporter.escape("a,b", ResultExporter.Format.CSV).equals("\"a,b\""));
+        assert (ResultExporter.escape("say \"hi\"", ResultExporter.Format.CSV).equals("\"say \"\"hi\"\"\""));
+        assert (ResultExporter.escape("a\tb\nc\\", ResultExporter.Format.TSV).equals("a\\tb\\nc\\\\"));
+        assert (ResultExporter.escape("a,b", ResultExporter.Format.TSV).equals("a,b"));
+        assert (ResultExporter.escape("say \"hi\"\n\u0001", ResultExporter.Format.JSONL)
+                .equals("\"say \\\"hi\\\"\\n\\u0001\""));
+    }
+
+    @Test
+    public void testExportCsv() throws SQLException, IOException {
+        List<String> lines = export(ResultExporter.Format.CSV, ".csv");
+        assert (lines.get(0).equals("a0,m0"));
+        assert (lines.get(1).equals("\"Prague, CZ\",-1250"));
+        assert (lines.get(2).equals("\"say \"\"hi\"\"\",-1249"));
+        assert (lines.get(3).equals("tab\there,-1248"));
+        assert (lines.get(4).equals("plain,-1247"));
+        assert (lines.get(5).equals("\"a,\"\"b\"\"\tc\",-1246"));
+        // the cached bytes of the codes repeat on the following pages
+        assert (lines.get(2496).equals("\"Prague, CZ\",1245"));
+        assert (lines.get(2500).equals("\"a,\"\"b\"\"\tc\",1249"));
+    }
+
+    @Test
+    public void testExportTsv() throws SQLException, IOException {
+        List<String> lines = export(ResultExporter.Format.TSV, ".tsv");
+        assert (lines.get(0).equals("a0\tm0"));
+        assert (lines.get(1).equals("Prague, CZ\t-1250"));
+        assert (lines.get(2).equals("say \"hi\"\t-1249"));
+        assert (lines.get(3).equals("tab\\there\t-1248"));
+        assert (lines.get(5).equals("a,\"b\"\\tc\t-1246"));
+        assert (lines.get(2498).equals("tab\\there\t1247"));
+        assert (lines.get(2500).equals("a,\"b\"\\tc\t1249"));
+    }
+
+    @Test
+    public void testExportNotFiniteValues() throws SQLException, IOException {
+        String[] values = {"1.5", "NaN", "Infinity", "-Infinity", null};
+        ResultPageReader reader = (response, page, metricCount, dictionaries) -> {
+            ResultPageBuffer.MetricColumn metric = new ResultPageBuffer.MetricColumn(values.length);
+            for (int row = 0; row < values.length; row++) {
+                metric.set(row, values[row]);
+            }
+            return new ResultPageBuffer(0, values.length, values.length,
+                    new ResultPageBuffer.MetricColumn[]{metric}, new ResultPageBuffer.AttributeColumn[0]);
+        };
+        List<CatalogEntry> columns = columns().subList(1, 2);
+        CountingExecuteAfmService service = new CountingExecuteAfmService(values.length, 1);
+        AfmResultSet rs = new AfmResultSet(null, null, service, reader, new Afm(), columns,
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        Path jsonl = Files.createTempFile("gdjdbc-export", ".jsonl");
+        assert (rs.exportTo(jsonl, ResultExporter.Format.JSONL).getRows() == values.length);
+        rs.close();
+        // every line stays valid JSON
+        List<String> lines = Files.readAllLines(jsonl, StandardCharsets.UTF_8);
+        assert (lines.size() == values.length);
+        assert (lines.get(0).equals("{\"m0\":1.5}"));
+        for (int row = 1; row < values.length; row++) {
+            assert (lines.get(row).equals("{\"m0\":null}"));
+        }
+
+        rs = new AfmResultSet(null, null, service, reader, new Afm(), columns,
+                Collections.emptyList(), Integer.MAX_VALUE, 0, new ConnectionProperties(new Properties()));
+        Path csv = Files.createTempFile("gdjdbc-export", ".csv");
+        rs.exportTo(csv, ResultExporter.Format.CSV);
+        rs.close();
+        lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assert (lines.get(1).equals("1.5") && lines.get(2).equals("NaN") && lines.get(3).equals("Infinity"));
+        assert (lines.get(5).isEmpty());
+    }
+
+}
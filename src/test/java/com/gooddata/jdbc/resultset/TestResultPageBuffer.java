@@ -0,0 +1,96 @@
+package com.gooddata.jdbc.resultset;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+public class TestResultPageBuffer {
+
+    private static final String[] VALUES = {"0.1", "-1.50", "9007199254740993", "123456789012345678901.25",
+            "1E3", null, "NaN", "0"};
+
+    private static ResultPageBuffer.MetricColumn metric() throws SQLException {
+        ResultPageBuffer.MetricColumn metric = new ResultPageBuffer.MetricColumn(VALUES.length);
+        for (int row = 0; row < VALUES.length; row++) {
+            metric.set(row, VALUES[row]);
+        }
+        return metric;
+    }
+
+    private static void assertExact(ResultPageBuffer.MetricColumn metric) throws SQLException {
+        assert (metric.getValue(0) == 0.1);
+        assert (metric.getBigDecimal(0).equals(new BigDecimal("0.1")));
+        assert (metric.getText(0).equals("0.1"));
+        // the scale of the server value is kept
+        assert (metric.getBigDecimal(1).equals(new BigDecimal("-1.50")));
+        assert (metric.getText(1).equals("-1.50"));
+        assert (metric.getLong(1) == -1);
+        // the long over 2^53 isn't rounded by the double
+        assert (metric.getLong(2) == 9007199254740993L);
+        assert (metric.getBigDecimal(2).equals(new BigDecimal("9007199254740993")));
+        assert (metric.getValue(2) == 9007199254740993.0);
+        // the values that don't fit to the unscaled long
+        assert (metric.getBigDecimal(3).equals(new BigDecimal("123456789012345678901.25")));
+        assert (metric.getText(3).equals("123456789012345678901.25"));
+        assert (metric.getValue(3) == 123456789012345678901.25);
+        assert (metric.getLong(4) == 1000 && metric.getText(4).equals("1000"));
+        assert (metric.isNull(5) && metric.getBigDecimal(5) == null && metric.getText(5) == null);
+        assert (metric.getLong(5) == 0);
+        assert (Double.isNaN(metric.getValue(6)) && metric.getText(6).equals("NaN"));
+        assert (!metric.isNull(7) && metric.getBigDecimal(7).equals(BigDecimal.ZERO));
+    }
+
+    @Test
+    public void testExactValues() throws SQLException {
+        assertExact(metric());
+    }
+
+    @Test
+    public void testFormatAscii() throws SQLException {
+        ResultPageBuffer.MetricColumn metric = metric();
+        byte[] out = new byte[ResultPageBuffer.MetricColumn.MAX_ASCII_LENGTH];
+        for (int row = 0; row < VALUES.length; row++) {
+            int start = metric.formatAscii(row, out);
+            // NULL, NaN and the values that don't fit to the unscaled long are read by getText
+            assert (start < 0 || (row != 3 && row != 5 && row != 6));
+            if (start >= 0)
+                assert (new String(out, start, out.length - start, StandardCharsets.US_ASCII)
+                        .equals(metric.getText(row)));
+        }
+        String[] values = {"-0.05", "0.000", "-999999999999999999", "0.99999999999999999"};
+        metric = new ResultPageBuffer.MetricColumn(values.length);
+        for (int row = 0; row < values.length; row++) {
+            metric.set(row, values[row]);
+            int start = metric.formatAscii(row, out);
+            assert (new String(out, start, out.length - start, StandardCharsets.US_ASCII).equals(values[row]));
+        }
+    }
+
+    @Test(expectedExceptions = { SQLException.class })
+    public void testNotDecimal() throws SQLException {
+        metric().getBigDecimal(6);
+    }
+
+    @Test(expectedExceptions = { SQLException.class })
+    public void testInvalidValue() throws SQLException {
+        new ResultPageBuffer.MetricColumn(1).set(0, "1.2.3");
+    }
+
+    @Test
+    public void testWriteAndRead() throws SQLException, IOException {
+        ResultPageBuffer page = new ResultPageBuffer(0, VALUES.length, VALUES.length,
+                new ResultPageBuffer.MetricColumn[]{metric()}, new ResultPageBuffer.AttributeColumn[0]);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        page.writeTo(new DataOutputStream(bytes));
+        ResultPageBuffer read = ResultPageBuffer.readFrom(ByteBuffer.wrap(bytes.toByteArray()),
+                new AttributeDictionary[0]);
+        assertExact(read.getMetric(0));
+    }
+
+}
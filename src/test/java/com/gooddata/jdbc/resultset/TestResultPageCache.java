@@ -0,0 +1,104 @@
+package com.gooddata.jdbc.resultset;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+public class TestResultPageCache {
+
+    private static ResultPageBuffer page(int rowOffset, int rowCount, AttributeDictionary dictionary)
+            throws SQLException {
+        ResultPageBuffer.MetricColumn metric = new ResultPageBuffer.MetricColumn(rowCount);
+        ResultPageBuffer.AttributeColumn attribute = new ResultPageBuffer.AttributeColumn(rowCount, dictionary);
+        for (int row = 0; row < rowCount; row++) {
+            metric.set(row, row % 10 == 0 ? null : String.valueOf(rowOffset + row));
+            attribute.set(row, String.format("city%d", row % 3));
+        }
+        return new ResultPageBuffer(rowOffset, rowCount, 5 * rowCount,
+                new ResultPageBuffer.MetricColumn[]{metric}, new ResultPageBuffer.AttributeColumn[]{attribute});
+    }
+
+    @Test
+    public void testLruEviction() throws SQLException {
+        AttributeDictionary d = new AttributeDictionary(100);
+        ResultPageCache cache = new ResultPageCache(2);
+        cache.put(page(0, 100, d));
+        cache.put(page(100, 100, d));
+        assert (cache.get(50) != null);
+        cache.put(page(200, 100, d));
+        // the page 100 was the least recently used one
+        assert (cache.get(150) == null);
+        assert (cache.get(50) != null);
+        assert (cache.getHits() == 2);
+        assert (cache.getMisses() == 1);
+        assert (cache.getEvictions() == 1);
+    }
+
+    @Test
+    public void testSpillOverHeapBudget() throws SQLException, IOException {
+        Path dir = Files.createTempDirectory("gdjdbc-spill-test");
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        ResultPageCache cache = new ResultPageCache(100, 1, dir, dictionaries);
+        for (int i = 0; i < 5; i++) {
+            cache.put(page(i * 100, 100, dictionaries[0]));
+        }
+        // only the most recently used page stays on heap
+        assert (cache.size() == 1);
+        ResultPageSpillFile spillFile = cache.getSpillFile();
+        assert (spillFile.getSpilledPages() == 4);
+        assert (spillFile.getSpilledBytes() > 0);
+        assert (Files.exists(spillFile.getPath()));
+
+        ResultPageBuffer original = page(100, 100, dictionaries[0]);
+        ResultPageBuffer spilled = cache.get(150);
+        assert (spilled.getRowOffset() == 100);
+        assert (spilled.getRowCount() == 100);
+        assert (spilled.getTotalRows() == 500);
+        for (int row = 0; row < 100; row++) {
+            assert (spilled.getMetric(0).isNull(row) == original.getMetric(0).isNull(row));
+            assert (spilled.getMetric(0).getValue(row) == original.getMetric(0).getValue(row));
+            assert (spilled.getAttribute(0).getValue(row) == original.getAttribute(0).getValue(row));
+        }
+        assert (spillFile.getReads() == 1);
+
+        cache.close();
+        assert (!Files.exists(spillFile.getPath()));
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testSpillReadBack() throws SQLException, IOException {
+        Path dir = Files.createTempDirectory("gdjdbc-spill-test");
+        AttributeDictionary[] dictionaries = new AttributeDictionary[]{new AttributeDictionary(100)};
+        ResultPageSpillFile spillFile = new ResultPageSpillFile(dir);
+        spillFile.write(page(0, 50, dictionaries[0]));
+        spillFile.write(page(50, 100, dictionaries[0]));
+        spillFile.write(page(150, 10, dictionaries[0]));
+        // the grid scrolls back and forth over the spilled pages, every read reuses the read buffer
+        ResultPageBuffer[] read = new ResultPageBuffer[30];
+        for (int i = 0; i < read.length; i++) {
+            read[i] = spillFile.read(new int[]{10, 120, 155}[i % 3], dictionaries);
+        }
+        for (int i = 0; i < read.length; i++) {
+            ResultPageBuffer expected = page(new int[]{0, 50, 150}[i % 3], new int[]{50, 100, 10}[i % 3],
+                    dictionaries[0]);
+            assert (read[i].getRowOffset() == expected.getRowOffset());
+            assert (read[i].getRowCount() == expected.getRowCount());
+            for (int row = 0; row < expected.getRowCount(); row++) {
+                assert (read[i].getMetric(0).isNull(row) == expected.getMetric(0).isNull(row));
+                assert (read[i].getMetric(0).getValue(row) == expected.getMetric(0).getValue(row));
+                assert (read[i].getAttribute(0).getValue(row).equals(expected.getAttribute(0).getValue(row)));
+            }
+        }
+        assert (spillFile.read(200, dictionaries) == null);
+        assert (spillFile.getReads() == 30);
+
+        spillFile.close();
+        assert (!Files.exists(spillFile.getPath()));
+        Files.delete(dir);
+    }
+
+}
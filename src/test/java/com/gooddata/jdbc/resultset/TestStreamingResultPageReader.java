@@ -0,0 +1,89 @@
+package com.gooddata.jdbc.resultset;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gooddata.sdk.model.executeafm.ResultPage;
+import com.gooddata.sdk.model.executeafm.result.ExecutionResult;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+public class TestStreamingResultPageReader {
+
+    private static final String RESULT = "{\"executionResult\":{" +
+            "\"data\":[[\"1.5\",\"2\"],[null,\"4\"],[\"5\",\"6\"]]," +
+            "\"paging\":{\"count\":[3,2],\"offset\":[10,0],\"total\":[13,2]}," +
+            "\"headerItems\":[[[" +
+            "{\"attributeHeaderItem\":{\"name\":\"Prague\",\"uri\":\"/gdc/md/p/obj/1/elements?id=1\"}}," +
+            "{\"attributeHeaderItem\":{\"name\":\"Brno\",\"uri\":\"/gdc/md/p/obj/1/elements?id=2\"}}," +
+            "{\"attributeHeaderItem\":{\"name\":\"Prague\",\"uri\":\"/gdc/md/p/obj/1/elements?id=1\"}}" +
+            "]],[[" +
+            "{\"measureHeaderItem\":{\"name\":\"m1\",\"order\":0}}," +
+            "{\"measureHeaderItem\":{\"name\":\"m2\",\"order\":1}}" +
+            "]]]}}";
+
+    private static AttributeDictionary[] dictionaries() {
+        return new AttributeDictionary[]{new AttributeDictionary(100)};
+    }
+
+    @Test
+    public void testSameAsObjectModelDecode() throws IOException, SQLException {
+        ResultPageBuffer streamed = StreamingResultPageReader.parse(
+                new ByteArrayInputStream(RESULT.getBytes(StandardCharsets.UTF_8)), 10, 1000, 2, dictionaries());
+        ResultPageBuffer decoded = ResultPageBuffer.decode(
+                new ObjectMapper().readValue(RESULT, ExecutionResult.class), 2, dictionaries());
+        assert (streamed.getRowOffset() == decoded.getRowOffset());
+        assert (streamed.getRowCount() == decoded.getRowCount());
+        assert (streamed.getTotalRows() == decoded.getTotalRows());
+        for (int row = 0; row < decoded.getRowCount(); row++) {
+            for (int m = 0; m < 2; m++) {
+                assert (streamed.getMetric(m).isNull(row) == decoded.getMetric(m).isNull(row));
+                assert (streamed.getMetric(m).getValue(row) == decoded.getMetric(m).getValue(row));
+            }
+            assert (streamed.getAttribute(0).getValue(row).equals(decoded.getAttribute(0).getValue(row)));
+        }
+        assert (streamed.getMetric(0).isNull(1));
+        assert (streamed.getAttribute(0).getValue(0) == streamed.getAttribute(0).getValue(2));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMoreRowsThanRequested() throws IOException {
+        StreamingResultPageReader.parse(new ByteArrayInputStream(RESULT.getBytes(StandardCharsets.UTF_8)),
+                10, 2, 2, dictionaries());
+    }
+
+    @Test
+    public void testColumnsOfReturnedRows() throws IOException {
+        // the page buffer doesn't keep the columns of the requested limit
+        ResultPageBuffer limited = StreamingResultPageReader.parse(
+                new ByteArrayInputStream(RESULT.getBytes(StandardCharsets.UTF_8)), 10, 3, 2, dictionaries());
+        ResultPageBuffer streamed = StreamingResultPageReader.parse(
+                new ByteArrayInputStream(RESULT.getBytes(StandardCharsets.UTF_8)), 10, 1000, 2, dictionaries());
+        assert (streamed.getRowCount() == 3);
+        assert (streamed.estimateHeapSize() == limited.estimateHeapSize());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMissingAttributeHeaders() throws IOException {
+        // the attribute only result without the data is checked by the header rows
+        String result = "{\"executionResult\":{" +
+                "\"paging\":{\"count\":[3,0],\"offset\":[0,0],\"total\":[3,0]}," +
+                "\"headerItems\":[[[" +
+                "{\"attributeHeaderItem\":{\"name\":\"Prague\",\"uri\":\"/gdc/md/p/obj/1/elements?id=1\"}}," +
+                "{\"attributeHeaderItem\":{\"name\":\"Brno\",\"uri\":\"/gdc/md/p/obj/1/elements?id=2\"}}" +
+                "]]]}}";
+        StreamingResultPageReader.parse(new ByteArrayInputStream(result.getBytes(StandardCharsets.UTF_8)),
+                0, 1000, 0, dictionaries());
+    }
+
+    @Test
+    public void testPageUri() {
+        ResultPage page = new ResultPage(Arrays.asList(1000, 0), Arrays.asList(500, 3));
+        assert (StreamingResultPageReader.getPageUri("/gdc/app/projects/p/executionResults/1?q=a&c=b", page)
+                .toString().equals("/gdc/app/projects/p/executionResults/1?q=a&c=b&offset=1000,0&limit=500,3"));
+    }
+
+}